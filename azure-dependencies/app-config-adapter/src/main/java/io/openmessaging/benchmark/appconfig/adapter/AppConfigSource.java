@@ -0,0 +1,32 @@
+package io.openmessaging.benchmark.appconfig.adapter;
+
+import com.azure.core.exception.ResourceNotFoundException;
+import com.azure.data.appconfiguration.ConfigurationClient;
+import com.azure.data.appconfiguration.ConfigurationClientBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Configuration stored in Azure AppConfig.
+ */
+public class AppConfigSource implements ConfigSource {
+    private static final Logger log = LoggerFactory.getLogger(AppConfigSource.class);
+
+    private final ConfigurationClient configurationClient;
+
+    public AppConfigSource(String connectionString) {
+        this.configurationClient = new ConfigurationClientBuilder()
+                .connectionString(connectionString)
+                .buildClient();
+    }
+
+    @Override
+    public String get(String key, String label) {
+        try{
+            return configurationClient.getConfigurationSetting(key, label).getValue();
+        } catch (ResourceNotFoundException e){
+            log.error("Could not find configuration with key "+ key + " and label " + label);
+            return null;
+        }
+    }
+}
@@ -1,27 +1,45 @@
 package io.openmessaging.benchmark.appconfig.adapter;
 
-import com.azure.core.exception.ResourceNotFoundException;
-import com.azure.data.appconfiguration.ConfigurationClient;
-import com.azure.data.appconfiguration.ConfigurationClientBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Adapter class over Azure AppConfig to provide Configuration for running tests.
+ *
+ * <p>Values are cached for PerfConfigCacheTtlSeconds (10 minutes by default), missing keys included, and the known
+ * {@link ConfigurationKey}s are fetched when the provider is created. When a refresh fails the previous value is
+ * served. The {@link LocalConfigSource} of the file PerfConfigFile and of the environment overrides AppConfig, and is
+ * the only source when AppConfigConnectionString is not set.
  */
 public class ConfigProvider {
     private static final Logger log = LoggerFactory.getLogger(ConfigProvider.class);
 
+    private static final long DEFAULT_CACHE_TTL_SECONDS = 600;
+
     private static volatile ConfigProvider provider = null;
     private static String environmentStage = null;
     private static final Object lockObject = new Object();
-    private final ConfigurationClient configurationClient;
+    private final List<ConfigSource> sources = new ArrayList<>();
+    private final long cacheTtlMillis;
+    private final Map<String, CachedValue> cache = new ConcurrentHashMap<>();
 
     private ConfigProvider() {
+        sources.add(new LocalConfigSource(System.getenv("PerfConfigFile")));
         String connectionString = System.getenv("AppConfigConnectionString");
-        this.configurationClient = new ConfigurationClientBuilder()
-                .connectionString(connectionString)
-                .buildClient();
+        if (connectionString != null) {
+            sources.add(new AppConfigSource(connectionString));
+        } else {
+            log.info("No AppConfigConnectionString in environment variables, using local configuration only");
+        }
+        String ttl = System.getenv("PerfConfigCacheTtlSeconds");
+        this.cacheTtlMillis = TimeUnit.SECONDS.toMillis(ttl != null ? Long.parseLong(ttl) : DEFAULT_CACHE_TTL_SECONDS);
     }
 
     public static ConfigProvider getInstance() {
@@ -29,7 +47,9 @@ public class ConfigProvider {
             synchronized (lockObject){
                 if(provider == null){
                     environmentStage = System.getenv("PerfBenchmarkEnvironmentName");
-                    provider = new ConfigProvider();
+                    ConfigProvider newProvider = new ConfigProvider();
+                    newProvider.prefetch();
+                    provider = newProvider;
                 }
             }
         }
@@ -42,26 +62,65 @@ public class ConfigProvider {
     }
 
     public String getConfigurationValue(ConfigurationKey configKey, String environmentStage) {
-        try{
-            return configurationClient.getConfigurationSetting(configKey.toString(), environmentStage).getValue();
-        } catch (ResourceNotFoundException e){
-            log.error("Could not find configuration with key "+ configKey + " and label " + environmentStage);
-            return null;
-        }
+        return getCachedValue(configKey.toString(), environmentStage);
     }
 
     public String getNamespaceMetaData(String configName){
-        try{
-            return configurationClient.getConfigurationSetting(configName, environmentStage).getValue();
-        } catch (ResourceNotFoundException e){
-            log.error("Could not find namespaceMetadata with key "+ configName + " and label " + environmentStage);
-            return null;
-        }
+        return getCachedValue(configName, environmentStage);
     }
 
     public String getEnvironmentStage(){
         return environmentStage;
     }
 
+    private void prefetch() {
+        Arrays.stream(ConfigurationKey.values()).parallel().forEach(key -> {
+            try {
+                getConfigurationValue(key);
+            } catch (RuntimeException e) {
+                log.warn("Failed to prefetch configuration {}", key, e);
+            }
+        });
+    }
 
-}
\ No newline at end of file
+    private String getCachedValue(String key, String label) {
+        String cacheKey = label + "/" + key;
+        long now = System.currentTimeMillis();
+        CachedValue cached = cache.get(cacheKey);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.value;
+        }
+        try {
+            String value = lookup(key, label);
+            cache.put(cacheKey, new CachedValue(value, now + cacheTtlMillis));
+            return value;
+        } catch (RuntimeException e) {
+            if (cached == null) {
+                throw e;
+            }
+            log.warn("Failed to refresh configuration with key {} and label {}, using the cached value", key, label,
+                    e);
+            return cached.value;
+        }
+    }
+
+    private String lookup(String key, String label) {
+        for (ConfigSource source : sources) {
+            String value = source.get(key, label);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static class CachedValue {
+        final String value;
+        final long expiresAt;
+
+        CachedValue(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
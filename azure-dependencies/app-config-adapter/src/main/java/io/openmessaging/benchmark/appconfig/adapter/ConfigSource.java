@@ -0,0 +1,12 @@
+package io.openmessaging.benchmark.appconfig.adapter;
+
+/**
+ * Where {@link ConfigProvider} reads configuration values from.
+ */
+public interface ConfigSource {
+
+    /**
+     * @return the value of the key under the label, null when the source has none
+     */
+    String get(String key, String label);
+}
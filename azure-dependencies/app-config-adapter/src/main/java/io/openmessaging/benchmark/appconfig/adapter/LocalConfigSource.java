@@ -0,0 +1,45 @@
+package io.openmessaging.benchmark.appconfig.adapter;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Configuration from environment variables and a properties file, to run without AppConfig or override some of its
+ * values.
+ *
+ * <p>A key is looked up as the environment variable PERF_CONFIG_&lt;KEY&gt;, with every character other than letters
+ * and digits replaced by an underscore, then as {@code <label>.<key>} and {@code <key>} in the file.
+ */
+public class LocalConfigSource implements ConfigSource {
+    static final String ENV_PREFIX = "PERF_CONFIG_";
+
+    private final Properties properties = new Properties();
+
+    /**
+     * @param propertiesFile path of the properties file, null to only read the environment
+     */
+    public LocalConfigSource(String propertiesFile) {
+        if (propertiesFile != null) {
+            try (InputStream in = new FileInputStream(propertiesFile)) {
+                properties.load(in);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Could not read configuration file " + propertiesFile, e);
+            }
+        }
+    }
+
+    @Override
+    public String get(String key, String label) {
+        String value = System.getenv(environmentVariable(ENV_PREFIX, key));
+        if (value == null && label != null) {
+            value = properties.getProperty(label + "." + key);
+        }
+        return value != null ? value : properties.getProperty(key);
+    }
+
+    static String environmentVariable(String prefix, String key) {
+        return prefix + key.replaceAll("[^A-Za-z0-9]", "_").toUpperCase();
+    }
+}
@@ -4,38 +4,111 @@ import com.azure.identity.DefaultAzureCredentialBuilder;
 import com.azure.security.keyvault.secrets.SecretClient;
 import com.azure.security.keyvault.secrets.SecretClientBuilder;
 
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
 /**
- * Adapter class over Azure AppConfig to provide Configuration for running tests.
+ * Adapter class over Azure KeyVault to provide the secrets for running tests.
+ *
+ * <p>A secret is read from the environment variable PERF_SECRET_&lt;NAME&gt;, with every character other than letters
+ * and digits replaced by an underscore, then from the properties file PerfSecretsFile, then from the KeyVault
+ * PerfKeyVaultName. KeyVault secrets are cached for PerfSecretCacheTtlSeconds (10 minutes by default), and the cached
+ * value is served when a refresh fails.
  */
 public class CredentialProvider {
+    private static final long DEFAULT_CACHE_TTL_SECONDS = 600;
+    private static final String ENV_PREFIX = "PERF_SECRET_";
 
+    // Null when no KeyVault is configured
     private final SecretClient secretClient;
+    private final Properties localSecrets = new Properties();
+    private final long cacheTtlMillis;
+    private final Map<String, CachedSecret> cache = new ConcurrentHashMap<>();
     private static final Object lockObject = new Object();
-    private static CredentialProvider provider;
+    private static volatile CredentialProvider provider;
 
     private CredentialProvider() {
+        String secretsFile = System.getenv("PerfSecretsFile");
+        if (secretsFile != null) {
+            try (InputStream in = new FileInputStream(secretsFile)) {
+                localSecrets.load(in);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Could not read secrets file " + secretsFile, e);
+            }
+        }
+
         String keyVaultName = System.getenv("PerfKeyVaultName");
-        if(keyVaultName == null){
-            throw new RuntimeException("No KeyVault specified in environment variables");
+        if (keyVaultName == null) {
+            secretClient = null;
+        } else {
+            String keyVaultUri = "https://" + keyVaultName + ".vault.azure.net";
+
+            secretClient = new SecretClientBuilder()
+                    .vaultUrl(keyVaultUri)
+                    .credential(new DefaultAzureCredentialBuilder().build())
+                    .buildClient();
         }
-        String keyVaultUri = "https://" + keyVaultName + ".vault.azure.net";
 
-        secretClient = new SecretClientBuilder()
-                .vaultUrl(keyVaultUri)
-                .credential(new DefaultAzureCredentialBuilder().build())
-                .buildClient();
+        String ttl = System.getenv("PerfSecretCacheTtlSeconds");
+        cacheTtlMillis = TimeUnit.SECONDS.toMillis(ttl != null ? Long.parseLong(ttl) : DEFAULT_CACHE_TTL_SECONDS);
     }
 
     public static CredentialProvider getInstance() {
-        if(provider == null) {
+        if (provider == null) {
             synchronized (lockObject) {
-                provider = new CredentialProvider();
+                if (provider == null) {
+                    provider = new CredentialProvider();
+                }
             }
         }
         return provider;
     }
 
     public String getCredential(String secretName){
-       return secretClient.getSecret(secretName).getValue();
+        String value = System.getenv(ENV_PREFIX + secretName.replaceAll("[^A-Za-z0-9]", "_").toUpperCase());
+        if (value == null) {
+            value = localSecrets.getProperty(secretName);
+        }
+        if (value != null) {
+            return value;
+        }
+        if (secretClient == null) {
+            throw new RuntimeException("No KeyVault specified in environment variables and no local secret "
+                    + secretName);
+        }
+        return getKeyVaultSecret(secretName);
+    }
+
+    private String getKeyVaultSecret(String secretName) {
+        long now = System.currentTimeMillis();
+        CachedSecret cached = cache.get(secretName);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.value;
+        }
+        try {
+            String value = secretClient.getSecret(secretName).getValue();
+            cache.put(secretName, new CachedSecret(value, now + cacheTtlMillis));
+            return value;
+        } catch (RuntimeException e) {
+            if (cached == null) {
+                throw e;
+            }
+            return cached.value;
+        }
+    }
+
+    private static class CachedSecret {
+        final String value;
+        final long expiresAt;
+
+        CachedSecret(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,11 @@
 package io.openmessaging.benchmark.kusto.adapter;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.*;
 
 import com.microsoft.azure.kusto.data.auth.ConnectionStringBuilder;
@@ -30,8 +35,9 @@ public class KustoAdapter {
     private static final String V1_SUFFIX = "_V1";
     private static final Logger log = LoggerFactory.getLogger(KustoAdapter.class);
 
-    static ExecutorService service;
-    static CountDownLatch latch;
+    private static final long INGESTION_TIMEOUT_MINUTES = 5;
+
+    private final ExecutorService service = Executors.newFixedThreadPool(3);
     private final ConfigProvider configProvider;
 
     public String endpoint;
@@ -56,32 +62,101 @@ public class KustoAdapter {
     }
 
     public void uploadDataToKustoCluster(String fileNamePrefix) throws InterruptedException {
-        //Reinitialising the kusto ingestion executor.
-        latch = new CountDownLatch(3);
-        service = Executors.newFixedThreadPool(3);
-
-        service.execute(ingestFile(database, fileNamePrefix + "-details.json", "PerformanceRunDetails", MAPPING_SUFFIX + V1_SUFFIX));
-        service.execute(ingestFile(database, fileNamePrefix + "-snapshot.json", "PerformanceRunIndividualSnapshots", MAPPING_SUFFIX + V1_SUFFIX));
-        service.execute(ingestFile(database, fileNamePrefix + "-aggregate.json", "PerformanceRunAggregates", MAPPING_SUFFIX +  V1_SUFFIX));
-
-        try{
-            latch.await(5, TimeUnit.MINUTES);
-        } catch (Exception e){
-           log.error("Caught Interrupted Exception while awaiting ingestion completion. Check Kusto Logs for more details" + e.getMessage());
+        List<String> failedFiles = ingestFiles(resultFiles(Collections.singletonList(fileNamePrefix)));
+        if (!failedFiles.isEmpty()) {
+            log.error("Failed to ingest " + failedFiles + ". Check Kusto Logs for more details");
         }
     }
 
+    /**
+     * Result files of the given tests, in the order they should be ingested
+     */
+    public static List<String> resultFiles(List<String> fileNamePrefixes) {
+        List<String> files = new ArrayList<>();
+        for (String fileNamePrefix : fileNamePrefixes) {
+            files.add(fileNamePrefix + "-details.json");
+            files.add(fileNamePrefix + "-snapshot.json");
+            files.add(fileNamePrefix + "-aggregate.json");
+        }
+        return files;
+    }
 
     /**
-     * queues ingestion to Azure Data Explorer and waits for it to complete or fail
+     * Ingests the result files of any number of tests in parallel and waits for all of them. Every file gets
+     * INGESTION_TIMEOUT_MINUTES from the moment its ingestion starts.
+     *
+     * @return the files to ingest again: those that could not be handed to Kusto or that Kusto reported as failed.
+     *     Files still pending at their deadline are only logged, Kusto may still ingest them and retrying them
+     *     could duplicate their rows.
+     */
+    public List<String> ingestFiles(List<String> fileNames) throws InterruptedException {
+        Map<String, Future<IngestionOutcome>> ingestions = new LinkedHashMap<>();
+        for (String fileName : fileNames) {
+            ingestions.put(fileName, service.submit(ingestFile(database, fileName, tableName(fileName),
+                    MAPPING_SUFFIX + V1_SUFFIX)));
+        }
+
+        List<String> failedFiles = new ArrayList<>();
+        List<String> unknownFiles = new ArrayList<>();
+        for (Map.Entry<String, Future<IngestionOutcome>> ingestion : ingestions.entrySet()) {
+            try {
+                IngestionOutcome outcome = ingestion.getValue().get();
+                if (outcome == IngestionOutcome.FAILED) {
+                    failedFiles.add(ingestion.getKey());
+                } else if (outcome == IngestionOutcome.UNKNOWN) {
+                    unknownFiles.add(ingestion.getKey());
+                }
+            } catch (ExecutionException e) {
+                log.error("Failed to ingest " + ingestion.getKey() + ": " + e.getCause().getMessage());
+                failedFiles.add(ingestion.getKey());
+            } catch (CancellationException e) {
+                // Never started, the adapter was closed
+                failedFiles.add(ingestion.getKey());
+            }
+        }
+        if (!unknownFiles.isEmpty()) {
+            log.warn("Ingestion status unknown after " + INGESTION_TIMEOUT_MINUTES + " minutes for " + unknownFiles
+                    + ", not retrying them. Check Kusto Logs for more details");
+        }
+        return failedFiles;
+    }
+
+    public void close() {
+        // Ingestions that never started are cancelled so that ingestFiles doesn't wait for them
+        for (Runnable ingestion : service.shutdownNow()) {
+            ((Future<?>) ingestion).cancel(false);
+        }
+    }
+
+    private static String tableName(String fileName) {
+        if (fileName.endsWith("-details.json")) {
+            return "PerformanceRunDetails";
+        } else if (fileName.endsWith("-snapshot.json")) {
+            return "PerformanceRunIndividualSnapshots";
+        } else if (fileName.endsWith("-aggregate.json")) {
+            return "PerformanceRunAggregates";
+        }
+        throw new IllegalArgumentException("Not a result file: " + fileName);
+    }
+
+    private enum IngestionOutcome {
+        SUCCEEDED,
+        // Kusto reported the ingestion as failed, or it was never handed to Kusto
+        FAILED,
+        // Still pending at the deadline
+        UNKNOWN
+    }
+
+    /**
+     * queues ingestion to Azure Data Explorer and waits for it to complete or fail, up to INGESTION_TIMEOUT_MINUTES
+     * from the moment it starts
      *
      * @param database name of the kusto database
      * @param fileName file to read the data from
      * @param tableName table to publish the data in
-     * @throws InterruptedException
-     * @return
+     * @return the outcome of the ingestion
      */
-    private Runnable ingestFile(String database, String fileName, String tableName, String mappingSuffix) throws InterruptedException {
+    private Callable<IngestionOutcome> ingestFile(String database, String fileName, String tableName, String mappingSuffix) {
         FileSourceInfo fileSourceInfo = new FileSourceInfo(fileName,1000000);
 
         IngestionProperties ingestionProperties = new IngestionProperties(database, tableName);
@@ -91,43 +166,27 @@ public class KustoAdapter {
         ingestionProperties.setReportMethod(IngestionReportMethod.QUEUE_AND_TABLE);
 
         log.info("Trying to Ingest Data " + fileName + " into table " + tableName + " with schema " + ingestionProperties.getIngestionMapping().getIngestionMappingReference());
-        return new WorkerThread(fileSourceInfo, ingestionProperties);
-    }
-
-    public class WorkerThread implements Runnable {
-
-        private final FileSourceInfo fileSourceInfo;
-        private final IngestionProperties ingestionProperties;
-
-        public WorkerThread(FileSourceInfo fileSourceInfo, IngestionProperties ingestionProperties) {
-            this.fileSourceInfo = fileSourceInfo;
-            this.ingestionProperties = ingestionProperties;
-        }
-
-        @Override
-        public void run() {
-            IngestionResult result = null;
-            try {
-                result = ingestionClient.ingestFromFile(fileSourceInfo, ingestionProperties);
-            } catch (Exception e) {
-               log.error("Failed to initiate ingestion: " ,e);
-                latch.countDown();
-                Thread.currentThread().interrupt();
-            }
-            try {
-                IngestionStatus status = result.getIngestionStatusCollection().get(0);
-                while (status.status == OperationStatus.Pending) {
-                    Thread.sleep(5000);
-                    status = result.getIngestionStatusCollection().get(0);
+        return () -> {
+            long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(INGESTION_TIMEOUT_MINUTES);
+            IngestionResult result = ingestionClient.ingestFromFile(fileSourceInfo, ingestionProperties);
+            IngestionStatus status = result.getIngestionStatusCollection().get(0);
+            while (status.status == OperationStatus.Pending) {
+                if (System.nanoTime() > deadline) {
+                    return IngestionOutcome.UNKNOWN;
                 }
-                log.info("Ingestion completed for " + fileSourceInfo.getFilePath());
-                log.info("Final status: " + status.status);
-            } catch (Exception e) {
-                log.error("Failed to get ingestion status: ", e);
-                Thread.currentThread().interrupt();
-            }finally {
-                latch.countDown();
+                Thread.sleep(5000);
+                status = result.getIngestionStatusCollection().get(0);
             }
-        }
+            log.info("Ingestion completed for " + fileSourceInfo.getFilePath());
+            log.info("Final status: " + status.status);
+            if (status.status == OperationStatus.Failed) {
+                return IngestionOutcome.FAILED;
+            }
+            if (status.status != OperationStatus.Succeeded && status.status != OperationStatus.Queued) {
+                log.warn("Ingestion of " + fileSourceInfo.getFilePath() + " ended with status " + status.status
+                        + ", not retrying it");
+            }
+            return IngestionOutcome.SUCCEEDED;
+        };
     }
-}
\ No newline at end of file
+}
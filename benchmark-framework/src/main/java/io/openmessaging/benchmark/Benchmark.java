@@ -23,16 +23,20 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import io.openmessaging.benchmark.appconfig.adapter.ConfigProvider;
-import io.openmessaging.benchmark.appconfig.adapter.ConfigurationKey;
 import io.openmessaging.benchmark.driver.DriverConfiguration;
 import io.openmessaging.benchmark.driver.NamespaceMetadata;
-import io.openmessaging.benchmark.kusto.adapter.KustoAdapter;
 import io.openmessaging.benchmark.pojo.Arguments;
 import io.openmessaging.benchmark.pojo.TestRunInput;
 import io.openmessaging.benchmark.pojo.Workers;
 import io.openmessaging.benchmark.pojo.Workload;
+import io.openmessaging.benchmark.pojo.output.ComparisonResult;
 import io.openmessaging.benchmark.pojo.output.Metadata;
+import io.openmessaging.benchmark.pojo.output.RegressionReport;
 import io.openmessaging.benchmark.pojo.output.TestResult;
+import io.openmessaging.benchmark.regression.RegressionGate;
+import io.openmessaging.benchmark.regression.ResultSet;
+import io.openmessaging.benchmark.sink.ResultSink;
+import io.openmessaging.benchmark.sink.ResultSinkPipeline;
 import io.openmessaging.benchmark.worker.*;
 import java.io.File;
 import java.io.IOException;
@@ -54,7 +58,7 @@ public class Benchmark {
   private static final DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd-HH-mm-ss");
   private static final Logger log = LoggerFactory.getLogger(Benchmark.class);
   static ConfigProvider provider;
-  static KustoAdapter adapter;
+  static ResultSinkPipeline resultSinks;
 
     static {
         try {
@@ -84,52 +88,28 @@ public class Benchmark {
             System.exit(-1);
         }
 
+        boolean regression = false;
         try{
             final List<TestResult> testResults = executeBenchmarkingRun(arguments);
-            testResults.forEach(individualResult -> persistTestResults(arguments, individualResult));
+            for (TestResult individualResult : testResults) {
+                String fileNamePrefix = persistTestResults(arguments, individualResult);
+                regression |= checkForRegressions(arguments, fileNamePrefix);
+            }
         } catch(Exception e){
            log.error(e.toString());
         } finally{
-            System.exit(0);
+            closeResultSinks();
+            System.exit(regression ? 1 : 0);
         }
     }
 
   public static List<TestResult> executeBenchmarkingRun(Arguments arguments) throws Exception {
-    log.info("Starting benchmark run with config: {}", writer.writeValueAsString(arguments));
-
-    augmentArgumentsWithWorkerDetails(arguments);
-    final Map<String, Workload> workloadMapping = getWorkloadNameToWorkloadMap(arguments);
-    final Worker benchmarkWorker = getWorker(arguments);
-    final List<TestResult> testResultOutput = new ArrayList<>();
-    workloadMapping.forEach((workloadName, workload) -> {
-          arguments.drivers.forEach(
-              driverConfig -> {
-                DriverConfiguration driverConfiguration;
-                try {
-                  driverConfiguration = getDriverConfiguration(arguments, driverConfig);
-                } catch (IOException e) {
-                  log.error("Found error while loading Driver Configuration - " + e.getMessage());
-                  throw new RuntimeException(e);
-                }
-                log.info("--------------- WORKLOAD : {} --- DRIVER : {}---------------", workloadName, driverConfiguration.name);
-                final TestResult testResult =
-                    runTestAndReturnResult(
-                        TestRunInput.builder()
-                                .inputArguments(arguments)
-                            .benchmarkWorker(benchmarkWorker)
-                            .testDriver(driverConfiguration)
-                            .testWorkload(workload)
-                            .testRunID(UUID.randomUUID())
-                            .build());
-                testResultOutput.add(testResult);
-              });
-        });
-    benchmarkWorker.close();
-    log.info("End of Benchmarking Run");
-    return testResultOutput;
+    try (BenchmarkSession session = BenchmarkSession.open(arguments)) {
+      return session.run(arguments);
+    }
   }
 
-    private static void augmentArgumentsWithWorkerDetails(Arguments arguments) throws IOException {
+    static void augmentArgumentsWithWorkerDetails(Arguments arguments) throws IOException {
         if (arguments.workers != null && arguments.workersFile != null) {
             System.err.println("Only one between --workers and --workers-file can be specified");
             throw new RuntimeException("Conflict between worker roles");
@@ -150,7 +130,7 @@ public class Benchmark {
     }
 
   @NotNull
-  private static DriverConfiguration getDriverConfiguration(
+  static DriverConfiguration getDriverConfiguration(
       Arguments arguments, String driverConfig) throws IOException {
     File driverConfigFile = new File(driverConfig);
     DriverConfiguration driverConfiguration =
@@ -178,7 +158,7 @@ public class Benchmark {
   }
 
   @NotNull
-  private static Worker getWorker(Arguments arguments) {
+  static Worker getWorker(Arguments arguments) {
     Worker worker;
 
     if (arguments.workers != null && !arguments.workers.isEmpty()) {
@@ -193,7 +173,7 @@ public class Benchmark {
   }
 
   @NotNull
-  private static Map<String, Workload> getWorkloadNameToWorkloadMap(Arguments arguments)
+  static Map<String, Workload> getWorkloadNameToWorkloadMap(Arguments arguments)
       throws IOException {
     Map<String, Workload> workloads = new TreeMap<>();
     for (String path : arguments.workloads) {
@@ -213,33 +193,54 @@ public class Benchmark {
     return workloads;
   }
 
-    private static TestResult runTestAndReturnResult(TestRunInput testRunInput) {
+    static TestResult runTestAndReturnResult(TestRunInput testRunInput) {
         TestResult result = null;
         final DriverConfiguration driverConfiguration = testRunInput.getTestDriver();
         final Workload workload = testRunInput.getTestWorkload();
+        TestResultWriter resultWriter = null;
+        boolean completed = false;
         try {
-            // Stop any left over workload
-            testRunInput.getBenchmarkWorker().stopAll();
+            if (testRunInput.isDriverInitialized()) {
+                log.info("Reusing the initialized driver {}", driverConfiguration.name);
+            } else {
+                // Stop any left over workload
+                testRunInput.getBenchmarkWorker().stopAll();
 
-            File tempFile = File.createTempFile("driver-configuration" + System.currentTimeMillis(), ".tmp");
-            mapper.writeValue(tempFile, driverConfiguration);
-            testRunInput.getBenchmarkWorker().initializeDriver(tempFile);
+                File tempFile = File.createTempFile("driver-configuration" + System.currentTimeMillis(), ".tmp");
+                mapper.writeValue(tempFile, driverConfiguration);
+                testRunInput.getBenchmarkWorker().initializeDriver(tempFile);
+            }
 
+            resultWriter = new TestResultWriter(getFileNamePrefix(testRunInput));
             WorkloadGenerator generator = new WorkloadGenerator(driverConfiguration.name, workload,
-                    testRunInput.getBenchmarkWorker(), testRunInput.getTestRunID());
+                    testRunInput.getBenchmarkWorker(), testRunInput.getTestRunID(), resultWriter);
+            if (testRunInput.getReusedTopics() != null) {
+                generator.reuse(testRunInput.getReusedTopics());
+            }
+            generator.keepClients(testRunInput.isKeepDriver());
 
             result = generator.run();
 
             enrichTestResultWithMetadata(testRunInput, result);
+            resultWriter.finish(result);
+            result.fileNamePrefix = resultWriter.getFileNamePrefix();
 
             log.info("Completed Execution of Run");
             generator.close();
+            completed = true;
         } catch (Exception e) {
             log.error("Failed to run the workload '{}' for driver '{}'", workload.name, driverConfiguration.name, e);
             throw new RuntimeException(e);
         } finally {
             try {
-                testRunInput.getBenchmarkWorker().stopAll();
+                if (resultWriter != null) {
+                    // Keeps the snapshots of a failed test in the partial file
+                    resultWriter.close();
+                }
+                // A failed test may leave the driver in any state, so only a completed one hands it over
+                if (!completed || !testRunInput.isKeepDriver()) {
+                    testRunInput.getBenchmarkWorker().stopAll();
+                }
             } catch (IOException ignored) {
             }
         }
@@ -271,7 +272,9 @@ public class Benchmark {
                                 testRunInput.getInputArguments()
                                         .output
                                         .split("-")[0]) // Replacing workload name with test name
-                        .payload(workload.payloadFile)
+                        .payload(workload.payload != null
+                                ? "synthetic-" + workload.payload.sizeDistribution.name().toLowerCase()
+                                : workload.payloadFile)
                         .namespaceName(driverConfiguration.namespaceMetadata.NamespaceName)
                         .topics(workload.topics)
                         .partitions(workload.partitionsPerTopic)
@@ -289,30 +292,128 @@ public class Benchmark {
                         .build();
     }
 
-  public static void persistTestResults(Arguments arguments, TestResult result) {
+  private static String getFileNamePrefix(TestRunInput testRunInput) {
+    Arguments arguments = testRunInput.getInputArguments();
+    DriverConfiguration driverConfiguration = testRunInput.getTestDriver();
+    if (arguments.output.length() > 0) {
+      // Every test of the invocation writes and uploads its own files
+      return arguments.workloads.size() > 1 || arguments.drivers.size() > 1
+          ? String.format("%s-%s-%s", arguments.output, testRunInput.getWorkloadName(),
+              driverConfiguration.name.replaceAll("[^A-Za-z0-9._-]", "_"))
+          : arguments.output;
+    }
+    return String.format(
+        "%s-%s-%s-%s",
+        driverConfiguration.product,
+        driverConfiguration.protocol,
+        testRunInput.getWorkloadName(),
+        timestamp());
+  }
+
+  /**
+   * @return the file name prefix of the persisted results, null when they could not be written
+   */
+  public static String persistTestResults(Arguments arguments, TestResult result) {
     try {
-      String fileNamePrefix =
-          arguments.output.length() > 0
-              ? arguments.output
-              : String.format(
-                  "%s-%s-%s-%s",
-                  result.testDetails.product,
-                  result.testDetails.protocol,
-                  result.testDetails.metadata.workload,
-                  dateFormat.format(new Date()));
-
-      WriteTestResults(fileNamePrefix, result);
-      if (arguments.visualizeUsingKusto) {
-        if (adapter == null) {
-          adapter =
-              new KustoAdapter(
-                  provider.getConfigurationValue(ConfigurationKey.KustoEndpoint),
-                  provider.getConfigurationValue(ConfigurationKey.KustoDatabaseName));
-        }
-        adapter.uploadDataToKustoCluster(fileNamePrefix);
+      String fileNamePrefix;
+      if (result.fileNamePrefix != null) {
+        fileNamePrefix = result.fileNamePrefix;
+      } else {
+        fileNamePrefix =
+            arguments.output.length() > 0
+                ? arguments.output
+                : String.format(
+                    "%s-%s-%s-%s",
+                    result.testDetails.product,
+                    result.testDetails.protocol,
+                    result.testDetails.metadata.workload,
+                    timestamp());
+        WriteTestResults(fileNamePrefix, result);
       }
+      ResultSinkPipeline pipeline = getResultSinks(arguments);
+      if (pipeline != null) {
+        pipeline.submit(fileNamePrefix);
+      }
+      return fileNamePrefix;
     } catch (Exception e) {
       log.error("Found error while persisting test results", e);
+      return null;
+    }
+  }
+
+  /**
+   * Compares the persisted results with the same test in the baseline directory, if one was given, and writes the
+   * comparison next to the results as -regression.json. See {@link ResultSet#findBaseline} for how the baseline of a
+   * test is found.
+   *
+   * @return whether any metric regressed against the baseline
+   */
+  public static boolean checkForRegressions(Arguments arguments, String fileNamePrefix) {
+    if (arguments.baselineDir == null || fileNamePrefix == null) {
+      return false;
+    }
+    String baselinePrefix = ResultSet.findBaseline(new File(arguments.baselineDir), fileNamePrefix);
+    if (baselinePrefix == null) {
+      log.warn("No baseline results for {} in {}, skipping the regression check", fileNamePrefix,
+          arguments.baselineDir);
+      return false;
+    }
+    try {
+      RegressionReport report = new RegressionGate(arguments.regressionTolerance, fileNamePrefix.hashCode())
+          .compare(ResultSet.load(baselinePrefix), ResultSet.load(fileNamePrefix));
+      writer.writeValue(new File(fileNamePrefix + "-regression.json"), report);
+      for (ComparisonResult comparison : report.comparisons) {
+        if (comparison.isRegression()) {
+          log.error("Regression in {}: {} against baseline {} (ratio CI [{}, {}], {})", comparison.getMetricName(),
+              comparison.getCurrentValue(), comparison.getExpectedValue(), comparison.getRatioLowerBound(),
+              comparison.getRatioUpperBound(), comparison.getMethod());
+        }
+      }
+      log.info("Regression check of {} against {}: {}", fileNamePrefix, baselinePrefix,
+          report.regression ? "FAILED" : "passed");
+      return report.regression;
+    } catch (IOException e) {
+      log.error("Could not compare {} with the baseline {}", fileNamePrefix, baselinePrefix, e);
+      return false;
+    }
+  }
+
+  private static synchronized ResultSinkPipeline getResultSinks(Arguments arguments) throws Exception {
+    if (resultSinks == null) {
+      List<String> specs =
+          arguments.resultSinks != null
+              ? arguments.resultSinks
+              : arguments.visualizeUsingKusto ? Collections.singletonList("kusto") : Collections.emptyList();
+      if (specs.isEmpty()) {
+        return null;
+      }
+      List<ResultSink> sinks = new ArrayList<>();
+      for (String spec : specs) {
+        sinks.add(ResultSinkPipeline.createSink(spec));
+      }
+      resultSinks = new ResultSinkPipeline(sinks);
+    }
+    return resultSinks;
+  }
+
+  /**
+   * Waits for the queued results to reach the result sinks, to be called before exiting
+   */
+  public static synchronized void closeResultSinks() {
+    if (resultSinks != null) {
+      try {
+        resultSinks.close();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      resultSinks = null;
+    }
+  }
+
+  private static String timestamp() {
+    // SimpleDateFormat is not thread safe and suites can run tests concurrently
+    synchronized (dateFormat) {
+      return dateFormat.format(new Date());
     }
   }
 
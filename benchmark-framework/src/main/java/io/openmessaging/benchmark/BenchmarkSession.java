@@ -0,0 +1,175 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.openmessaging.benchmark.driver.DriverConfiguration;
+import io.openmessaging.benchmark.pojo.Arguments;
+import io.openmessaging.benchmark.pojo.TestRunInput;
+import io.openmessaging.benchmark.pojo.Workload;
+import io.openmessaging.benchmark.pojo.output.TestResult;
+import io.openmessaging.benchmark.worker.Topic;
+import io.openmessaging.benchmark.worker.Worker;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs tests one after another on the same workers.
+ *
+ * <p>With {@link Arguments#reuseDriver}, the driver of a completed test stays initialized and the next test with the
+ * same driver configuration goes straight to creating its topics, skipping the driver reset and the client setup of
+ * the driver.
+ *
+ * <p>With {@link Arguments#reuseTopics}, a test whose topics, producers and consumers match the previous test keeps
+ * them all and goes straight to warmup, skipping the topic and client creation and the wait for the consumers. Only
+ * the stats are reset between the tests. Topics are never reused with new consumers, which would replay the messages
+ * of the previous test from the earliest offset.
+ */
+public class BenchmarkSession implements AutoCloseable {
+
+    private static final ObjectWriter writer = new ObjectMapper().writer();
+
+    private final Worker worker;
+    private final boolean reuseDriver;
+    private final boolean reuseTopics;
+    // Driver configuration the workers are initialized with, null when none is
+    private String initializedDriver;
+    // Workload and topics of the previous test, whose clients are still open, null when there are none
+    private Workload previousWorkload;
+    private List<Topic> previousTopics;
+
+    private BenchmarkSession(Worker worker, boolean reuseDriver, boolean reuseTopics) {
+        this.worker = worker;
+        this.reuseDriver = reuseDriver || reuseTopics;
+        this.reuseTopics = reuseTopics;
+    }
+
+    /**
+     * Opens a session on the workers of the arguments. Later runs of the session use these workers whatever their
+     * own arguments say.
+     */
+    public static BenchmarkSession open(Arguments arguments) throws IOException {
+        Benchmark.augmentArgumentsWithWorkerDetails(arguments);
+        return new BenchmarkSession(Benchmark.getWorker(arguments), arguments.reuseDriver, arguments.reuseTopics);
+    }
+
+    /**
+     * Runs every workload of the arguments with every driver. When drivers are reused, the tests of a driver run
+     * back-to-back.
+     */
+    public List<TestResult> run(Arguments arguments) throws Exception {
+        log.info("Starting benchmark run with config: {}", writer.withDefaultPrettyPrinter()
+                .writeValueAsString(arguments));
+
+        Map<String, Workload> workloads = Benchmark.getWorkloadNameToWorkloadMap(arguments);
+        List<TestResult> results = new ArrayList<>();
+        if (reuseDriver) {
+            for (String driverConfig : arguments.drivers) {
+                DriverConfiguration driverConfiguration = Benchmark.getDriverConfiguration(arguments, driverConfig);
+                for (Map.Entry<String, Workload> workload : workloads.entrySet()) {
+                    results.add(runTest(arguments, workload.getKey(), workload.getValue(), driverConfiguration));
+                }
+            }
+        } else {
+            for (Map.Entry<String, Workload> workload : workloads.entrySet()) {
+                for (String driverConfig : arguments.drivers) {
+                    DriverConfiguration driverConfiguration = Benchmark.getDriverConfiguration(arguments,
+                            driverConfig);
+                    results.add(runTest(arguments, workload.getKey(), workload.getValue(), driverConfiguration));
+                }
+            }
+        }
+        log.info("End of Benchmarking Run");
+        return results;
+    }
+
+    private TestResult runTest(Arguments arguments, String workloadName, Workload workload,
+            DriverConfiguration driverConfiguration) throws IOException {
+        log.info("--------------- WORKLOAD : {} --- DRIVER : {}---------------", workloadName,
+                driverConfiguration.name);
+        String driver = writer.writeValueAsString(driverConfiguration);
+        boolean driverInitialized = reuseDriver && driver.equals(initializedDriver);
+        List<Topic> reusedTopics = null;
+        if (driverInitialized && previousTopics != null) {
+            if (reuseTopics && sameLayout(previousWorkload, workload)) {
+                reusedTopics = previousTopics;
+            } else {
+                worker.stopLoad();
+            }
+        }
+        // Set again once the test completes, a failed test tears the driver down
+        initializedDriver = null;
+        previousWorkload = null;
+        previousTopics = null;
+
+        TestResult result = Benchmark.runTestAndReturnResult(
+                TestRunInput.builder()
+                        .inputArguments(arguments)
+                        .benchmarkWorker(worker)
+                        .testDriver(driverConfiguration)
+                        .testWorkload(workload)
+                        .workloadName(workloadName)
+                        .testRunID(UUID.randomUUID())
+                        .driverInitialized(driverInitialized)
+                        .keepDriver(reuseDriver)
+                        .reusedTopics(reusedTopics)
+                        .build());
+        if (reuseDriver) {
+            initializedDriver = driver;
+            previousWorkload = workload;
+            previousTopics = result.topics;
+        }
+        return result;
+    }
+
+    /**
+     * Whether the next workload can run on the topics, producers and consumers of the previous one. Backlog workloads
+     * pause and resume the consumers, so they always start afresh.
+     */
+    static boolean sameLayout(Workload previous, Workload next) {
+        return previous.topics == next.topics
+                && previous.partitionsPerTopic == next.partitionsPerTopic
+                && Objects.equals(previous.topicName, next.topicName)
+                && previous.producersPerTopic == next.producersPerTopic
+                && previous.subscriptionsPerTopic == next.subscriptionsPerTopic
+                && previous.consumerPerSubscription == next.consumerPerSubscription
+                && previous.consumerOnly == next.consumerOnly
+                && previous.consumerBacklogSizeGB == 0 && next.consumerBacklogSizeGB == 0;
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (initializedDriver != null) {
+            worker.stopAll();
+            initializedDriver = null;
+            previousWorkload = null;
+            previousTopics = null;
+        }
+        worker.close();
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(BenchmarkSession.class);
+}
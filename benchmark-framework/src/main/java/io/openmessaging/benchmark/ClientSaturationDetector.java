@@ -0,0 +1,82 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+import io.openmessaging.benchmark.pojo.ClientSaturationAction;
+import io.openmessaging.benchmark.pojo.Workload;
+import io.openmessaging.benchmark.worker.commands.PeriodStats;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tells when a stats interval was limited by the benchmark workers rather than by the system under test.
+ *
+ * <p>An interval is client-bound when the producer threads could not keep up with the rate limiter while the publish
+ * rate fell short of the target, when the busiest worker ran out of CPU, or when the consumer callbacks had to record
+ * their stats inline because the stats thread was falling behind.
+ */
+class ClientSaturationDetector {
+
+    /** Share of the sends the rate limiter did not have to hold back */
+    static final double BEHIND_SCHEDULE_RATIO = 0.9;
+
+    /** Publish rate, relative to the target, under which a producer behind schedule is considered saturated */
+    static final double PUBLISH_RATE_RATIO = 0.95;
+
+    private final Workload workload;
+    private int consecutiveIntervals = 0;
+
+    ClientSaturationDetector(Workload workload) {
+        this.workload = workload;
+    }
+
+    /**
+     * Returns the reasons why the interval is client-bound, empty if it is not
+     */
+    List<String> check(PeriodStats stats, double elapsedSeconds, double targetPublishRate) {
+        List<String> reasons = new ArrayList<>();
+
+        long scheduledSends = stats.producerPacedSends + stats.producerBehindScheduleSends;
+        if (scheduledSends > 0 && targetPublishRate > 0) {
+            double behindScheduleRatio = (double) stats.producerBehindScheduleSends / scheduledSends;
+            double publishRateRatio = stats.messagesSent / elapsedSeconds / targetPublishRate;
+            if (behindScheduleRatio >= BEHIND_SCHEDULE_RATIO && publishRateRatio < PUBLISH_RATE_RATIO) {
+                reasons.add(String.format("producers behind schedule on %.1f%% of the sends, publish rate at %.1f%% "
+                        + "of the target", 100 * behindScheduleRatio, 100 * publishRateRatio));
+            }
+        }
+
+        if (stats.maxProcessCpuPercent >= workload.clientSaturationCpuPercent) {
+            reasons.add(String.format("worker CPU at %.1f%%", stats.maxProcessCpuPercent));
+        }
+
+        if (stats.receiveQueueOverflows > 0) {
+            reasons.add(String.format("consumer stats queue full %d times, max depth %d", stats.receiveQueueOverflows,
+                    stats.maxReceiveQueueDepth));
+        }
+
+        consecutiveIntervals = reasons.isEmpty() ? 0 : consecutiveIntervals + 1;
+        return reasons;
+    }
+
+    boolean shouldStop() {
+        return workload.clientSaturationAction == ClientSaturationAction.STOP
+                && consecutiveIntervals >= workload.clientSaturationMaxIntervals;
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.openmessaging.benchmark.pojo.output.SnapshotResult;
+import io.openmessaging.benchmark.pojo.output.TestResult;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the result files of a test while it runs.
+ *
+ * <p>Snapshots are appended to {@code <prefix>-snapshot.json.partial} as newline-delimited JSON and synced to disk
+ * every interval, so a coordinator that dies mid-test leaves every interval measured so far behind. At the end the
+ * details and aggregate files are written and the snapshot file renamed, each one atomically, so that the final
+ * {@code -details.json}, {@code -snapshot.json} and {@code -aggregate.json} files are either complete or absent.
+ *
+ * <p>The interval latency histograms are logged in the HdrHistogram log format next to the snapshots, for the
+ * regression gate and for offline analysis.
+ */
+public class TestResultWriter implements AutoCloseable {
+
+    static final String PARTIAL_SUFFIX = ".partial";
+    public static final String PUBLISH_LATENCY_LOG_SUFFIX = "-publish-latency.hlog";
+    public static final String END_TO_END_LATENCY_LOG_SUFFIX = "-e2e-latency.hlog";
+
+    private static final ObjectWriter snapshotWriter = new ObjectMapper().writer();
+    private static final ObjectWriter writer = new ObjectMapper().writerWithDefaultPrettyPrinter();
+
+    private final String fileNamePrefix;
+    private final File snapshotFile;
+    private final FileOutputStream snapshotStream;
+    private final HistogramLogWriter publishLatencyLog;
+    private final HistogramLogWriter endToEndLatencyLog;
+    private int snapshots = 0;
+
+    public TestResultWriter(String fileNamePrefix) throws IOException {
+        this.fileNamePrefix = fileNamePrefix;
+        this.snapshotFile = new File(fileNamePrefix + "-snapshot.json" + PARTIAL_SUFFIX);
+        this.snapshotStream = new FileOutputStream(snapshotFile, false);
+        this.publishLatencyLog = openHistogramLog(fileNamePrefix + PUBLISH_LATENCY_LOG_SUFFIX);
+        this.endToEndLatencyLog = openHistogramLog(fileNamePrefix + END_TO_END_LATENCY_LOG_SUFFIX);
+        log.info("Streaming snapshots to {}", snapshotFile);
+    }
+
+    public String getFileNamePrefix() {
+        return fileNamePrefix;
+    }
+
+    public synchronized void append(SnapshotResult snapshot) throws IOException {
+        snapshotStream.write(snapshotWriter.writeValueAsBytes(snapshot));
+        snapshotStream.write('\n');
+        snapshotStream.flush();
+        snapshotStream.getFD().sync();
+        snapshots++;
+    }
+
+    /**
+     * Logs the latency histograms of an interval, in microseconds
+     *
+     * @param startSeconds start of the interval since the start of the test
+     */
+    public synchronized void appendHistograms(double startSeconds, double endSeconds, Histogram publishLatency,
+            Histogram endToEndLatency) {
+        publishLatencyLog.outputIntervalHistogram(startSeconds, endSeconds, publishLatency, 1.0);
+        endToEndLatencyLog.outputIntervalHistogram(startSeconds, endSeconds, endToEndLatency, 1.0);
+    }
+
+    /**
+     * Writes the details and aggregate of the test and finalizes the snapshot file
+     */
+    public synchronized void finish(TestResult result) throws IOException {
+        close();
+        writeAtomically(fileNamePrefix + "-details.json", writer.writeValueAsBytes(result.testDetails));
+        writeAtomically(fileNamePrefix + "-aggregate.json", writer.writeValueAsBytes(result.aggregateResult));
+        moveAtomically(snapshotFile.toPath(), new File(fileNamePrefix + "-snapshot.json").toPath());
+        log.info("Wrote {} snapshots and the test results to {}-*.json", snapshots, fileNamePrefix);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        snapshotStream.close();
+        publishLatencyLog.close();
+        endToEndLatencyLog.close();
+    }
+
+    private static HistogramLogWriter openHistogramLog(String fileName) throws IOException {
+        // Auto flush, every interval reaches the file as soon as it is logged
+        HistogramLogWriter histogramLog = new HistogramLogWriter(new PrintStream(new FileOutputStream(fileName), true));
+        histogramLog.outputLogFormatVersion();
+        histogramLog.outputStartTime(System.currentTimeMillis());
+        histogramLog.outputLegend();
+        return histogramLog;
+    }
+
+    private static void writeAtomically(String fileName, byte[] content) throws IOException {
+        File partialFile = new File(fileName + PARTIAL_SUFFIX);
+        try (FileOutputStream out = new FileOutputStream(partialFile)) {
+            out.write(content);
+            out.getFD().sync();
+        }
+        moveAtomically(partialFile.toPath(), new File(fileName).toPath());
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(TestResultWriter.class);
+}
@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+import io.openmessaging.benchmark.pojo.Workload;
+import io.openmessaging.benchmark.worker.Worker;
+import io.openmessaging.benchmark.worker.commands.PeriodStats;
+import io.openmessaging.benchmark.worker.commands.RecordingRequest;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs JFR recordings on the workers during the benchmark phase and downloads them when an interval shows a latency
+ * cliff, and at the end of the test. Each download covers the last workerRecordingWindowSeconds, so it includes the
+ * interval that triggered it.
+ */
+class WorkerRecordingController {
+
+    private final Worker worker;
+    private final Workload workload;
+    private final UUID runId;
+    private final List<Double> p99History = new ArrayList<>();
+    private long lastDownloadNanos = 0;
+
+    WorkerRecordingController(Worker worker, Workload workload, UUID runId) {
+        this.worker = worker;
+        this.workload = workload;
+        this.runId = runId;
+    }
+
+    void start() throws IOException {
+        RecordingRequest request = new RecordingRequest();
+        request.settings = workload.workerRecordingSettings;
+        request.maxAgeSeconds = workload.workerRecordingWindowSeconds;
+        worker.startRecording(request);
+        log.info("Started JFR recordings on the workers, keeping the last {} s", request.maxAgeSeconds);
+    }
+
+    /**
+     * Downloads the recordings when the p99 publish latency of the interval exceeds workerRecordingLatencyCliffFactor
+     * times the median p99 of the previous intervals, at most once per recording window
+     */
+    void onInterval(PeriodStats stats, long secondsSinceTestStart) {
+        double p99 = stats.publishLatency.getValueAtPercentile(99);
+        boolean cliff = workload.workerRecordingLatencyCliffFactor > 0 && !p99History.isEmpty()
+                && p99 > workload.workerRecordingLatencyCliffFactor * median(p99History);
+        p99History.add(p99);
+
+        long now = System.nanoTime();
+        boolean windowElapsed = lastDownloadNanos == 0
+                || now - lastDownloadNanos >= TimeUnit.SECONDS.toNanos(workload.workerRecordingWindowSeconds);
+        if (cliff && windowElapsed) {
+            log.warn("Latency cliff at {} s, p99 publish latency {} ms, downloading the worker recordings",
+                    secondsSinceTestStart, WorkloadGenerator.microsToMillis(p99));
+            download("cliff-" + secondsSinceTestStart + "s");
+            lastDownloadNanos = now;
+        }
+    }
+
+    void finish() {
+        download("end");
+        try {
+            worker.stopRecording();
+        } catch (IOException e) {
+            log.warn("Failed to stop the worker recordings", e);
+        }
+    }
+
+    private void download(String suffix) {
+        String prefix = String.format("%s-%s-%s", workload.name, runId, suffix).replaceAll("[^\\w.-]", "_");
+        try {
+            worker.downloadRecording(prefix);
+        } catch (Exception e) {
+            log.warn("Failed to download the worker recordings", e);
+        }
+    }
+
+    private static double median(List<Double> values) {
+        List<Double> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(WorkerRecordingController.class);
+}
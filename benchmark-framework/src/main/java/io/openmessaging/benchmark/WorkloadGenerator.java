@@ -28,6 +28,7 @@ import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -41,6 +42,7 @@ import org.slf4j.LoggerFactory;
 import io.netty.util.concurrent.DefaultThreadFactory;
 import io.openmessaging.benchmark.utils.PaddingDecimalFormat;
 import io.openmessaging.benchmark.utils.Timer;
+import io.openmessaging.benchmark.utils.distributor.KeyDistributorSpec;
 import io.openmessaging.benchmark.utils.payload.FilePayloadReader;
 import io.openmessaging.benchmark.utils.payload.PayloadReader;
 import io.openmessaging.benchmark.worker.Topic;
@@ -59,6 +61,7 @@ public class WorkloadGenerator implements AutoCloseable {
     private final Workload workload;
     private final Worker worker;
     private final UUID uniqueRunId;
+    private final TestResultWriter resultWriter;
 
     private final ExecutorService executor = Executors
             .newCachedThreadPool(new DefaultThreadFactory("messaging-benchmark"));
@@ -68,32 +71,78 @@ public class WorkloadGenerator implements AutoCloseable {
 
     private volatile double targetPublishRate;
 
+    // Only set during the benchmark phase of workloads with workerRecording
+    private WorkerRecordingController recordingController;
+
+    // Set by a session to continue on the topics and clients of its previous test
+    private List<Topic> reusedTopics;
+    // Leave the producers and consumers open for the next test of a session
+    private boolean keepClients;
+    // Null when the test reuses the clients of the previous test
+    private ClientCreationMetric clientCreation;
+
     public WorkloadGenerator(String driverName, Workload workload, Worker worker, UUID uuid) {
+        this(driverName, workload, worker, uuid, null);
+    }
+
+    /**
+     * @param resultWriter receives the snapshots of the benchmark phase as they are taken instead of the
+     *     snapshotResultList of the result, null to keep them in the result
+     */
+    public WorkloadGenerator(String driverName, Workload workload, Worker worker, UUID uuid,
+            TestResultWriter resultWriter) {
         this.driverName = driverName;
         this.workload = workload;
         this.worker = worker;
         this.uniqueRunId = uuid;
+        this.resultWriter = resultWriter;
 
         if (workload.consumerBacklogSizeGB > 0 && workload.producerRate == 0) {
             throw new IllegalArgumentException("Cannot probe producer sustainable rate when building backlog");
         }
     }
 
+    /**
+     * Runs on the topics, producers and consumers the previous test of a session left open and goes straight to
+     * warmup
+     */
+    public void reuse(List<Topic> topics) {
+        this.reusedTopics = topics;
+    }
+
+    /**
+     * Stops only the producers at the end of the test, the next test of the session may reuse the clients
+     */
+    public void keepClients(boolean keepClients) {
+        this.keepClients = keepClients;
+    }
+
     public TestResult run() throws Exception {
-        Timer timer = new Timer();
-        List<Topic> topics = worker.createTopics(new TopicsInfo(workload.topics, workload.partitionsPerTopic, workload.topicName));
-        log.info("Created {} topics in {} ms", topics.size(), timer.elapsedMillis());
+        List<Topic> topics;
+        if (reusedTopics != null) {
+            topics = reusedTopics;
+            log.info("Reusing {} topics and their producers and consumers from the previous test", topics.size());
+        } else {
+            Timer timer = new Timer();
+            topics = worker.createTopics(new TopicsInfo(workload.topics, workload.partitionsPerTopic, workload.topicName));
+            log.info("Created {} topics in {} ms", topics.size(), timer.elapsedMillis());
 
-        // Notify other workers about these topics
-        worker.notifyTopicCreation(topics);
+            // Notify other workers about these topics
+            worker.notifyTopicCreation(topics);
 
-        createProducers(topics);
+            createProducers(topics);
 
-        if (workload.consumerPerSubscription > 0) {
-            createConsumers(topics);
-            // ensureTopicsAreReady();
+            if (workload.consumerPerSubscription > 0) {
+                createConsumers(topics);
+                // ensureTopicsAreReady();
+            }
+
+            clientCreation = ClientCreationMetric.fromStats(worker.getClientCreationStats());
+            log.info("Producer creation avg: {} ms - p99: {} ms | Consumer creation avg: {} ms - p99: {} ms",
+                    clientCreation.producerCreationAvgMs, clientCreation.producerCreation99pctMs,
+                    clientCreation.consumerCreationAvgMs, clientCreation.consumerCreation99pctMs);
+            Thread.sleep(300000);
         }
-        Thread.sleep(300000);
 
         if (workload.producerRate > 0) {
             targetPublishRate = workload.producerRate;
@@ -111,12 +160,28 @@ public class WorkloadGenerator implements AutoCloseable {
             });
         }
 
-        final PayloadReader payloadReader = new FilePayloadReader(workload.messageSize);
-
         ProducerWorkAssignment producerWorkAssignment = new ProducerWorkAssignment();
         producerWorkAssignment.keyDistributorType = workload.keyDistributor;
+        // A copy, the workload may be shared with later tests
+        producerWorkAssignment.keyDistributorSpec = Optional.ofNullable(workload.keyDistributorSpec)
+                .map(KeyDistributorSpec::copy)
+                .orElseGet(KeyDistributorSpec::new);
+        if (producerWorkAssignment.keyDistributorSpec.partitions <= 0) {
+            producerWorkAssignment.keyDistributorSpec.partitions = workload.partitionsPerTopic;
+        }
         producerWorkAssignment.publishRate = targetPublishRate;
-        producerWorkAssignment.payloadData = payloadReader.load(workload.payloadFile);
+        producerWorkAssignment.loadMode = workload.loadMode;
+        producerWorkAssignment.maxInFlightMessages = workload.maxInFlightMessages;
+        producerWorkAssignment.maxInFlightBytes = workload.maxInFlightBytes;
+        producerWorkAssignment.producerThreads = workload.producerThreads;
+        producerWorkAssignment.producerCpus = workload.producerCpus;
+        producerWorkAssignment.driverCpus = workload.driverCpus;
+        if (workload.payload != null) {
+            producerWorkAssignment.payloadSpec = workload.payload.resolve(workload.messageSize);
+        } else {
+            final PayloadReader payloadReader = new FilePayloadReader(workload.messageSize);
+            producerWorkAssignment.payloadData = payloadReader.load(workload.payloadFile);
+        }
 
         worker.startLoad(producerWorkAssignment);
 
@@ -130,15 +195,31 @@ public class WorkloadGenerator implements AutoCloseable {
             });
         }
         log.info("----- Starting warmup traffic ------");
-        printAndCollectStats(1, TimeUnit.MINUTES);
+        printAndCollectStats(1, TimeUnit.MINUTES, null, null);
         worker.resetStats();
 
+        if (workload.workerRecording) {
+            recordingController = new WorkerRecordingController(worker, workload, uniqueRunId);
+            recordingController.start();
+        }
+
         log.info("----- Starting benchmark traffic ------");
-        TestResult result = printAndCollectStats(workload.testDurationMinutes, TimeUnit.MINUTES);
+        TestResult result;
+        try {
+            result = printAndCollectStats(workload.testDurationMinutes, TimeUnit.MINUTES,
+                    new ClientSaturationDetector(workload), resultWriter);
+        } finally {
+            if (recordingController != null) {
+                recordingController.finish();
+                recordingController = null;
+            }
+        }
         runCompleted = true;
+        result.topics = topics;
+        result.testDetails.clientCreation = clientCreation;
 
         try {
-            worker.stopAll();
+            stopLoad();
         } catch (IOException e) {
             log.error("Unable to stop workload - {}", e.toString());
         }
@@ -297,10 +378,19 @@ public class WorkloadGenerator implements AutoCloseable {
 
     @Override
     public void close() throws Exception {
-        worker.stopAll();
+        stopLoad();
         executor.shutdownNow();
     }
 
+    private void stopLoad() throws IOException {
+        // The driver stays up for whoever initialized it, see BenchmarkSession
+        if (keepClients) {
+            worker.stopProducers();
+        } else {
+            worker.stopLoad();
+        }
+    }
+
     private void createConsumers(List<Topic> topics) throws IOException {
         ConsumerAssignment consumerAssignment = new ConsumerAssignment();
 
@@ -308,7 +398,8 @@ public class WorkloadGenerator implements AutoCloseable {
             for (int i = 0; i < workload.subscriptionsPerTopic; i++) {
                 String subscriptionName = String.format("sub-%03d-%s", i, RandomGenerator.getRandomString());
                 for (int j = 0; j < workload.consumerPerSubscription; j++) {
-                    consumerAssignment.topicsSubscriptions.add(new TopicSubscription(topic.name, subscriptionName, j));
+                    consumerAssignment.topicsSubscriptions.add(new TopicSubscription(topic.name, subscriptionName, j,
+                            assignedPartitions(topic.partitions, workload.consumerPerSubscription, j)));
                 }
             }
         }
@@ -321,6 +412,18 @@ public class WorkloadGenerator implements AutoCloseable {
         log.info("Created {} consumers in {} ms", consumerAssignment.topicsSubscriptions.size(), timer.elapsedMillis());
     }
 
+    /**
+     * Consumer j of a subscription owns every partition p where p % consumers == j, consumers past the number of
+     * partitions own none and stay idle
+     */
+    static List<Integer> assignedPartitions(int partitions, int consumers, int consumer) {
+        List<Integer> assignedPartitions = new ArrayList<>();
+        for (int p = consumer; p < partitions; p += consumers) {
+            assignedPartitions.add(p);
+        }
+        return assignedPartitions;
+    }
+
     private void createProducers(List<Topic> topics) throws IOException {
         List<String> fullListOfTopics = new ArrayList<>();
 
@@ -395,7 +498,13 @@ public class WorkloadGenerator implements AutoCloseable {
         worker.resumeProducers();
     }
 
-    private TestResult printAndCollectStats(long testDurations, TimeUnit unit) throws IOException {
+    /**
+     * @param saturationDetector checks every interval for client-side saturation, null to skip the checks, e.g.
+     *     during the warmup
+     * @param snapshotWriter streams the snapshots to disk, null to collect them in the result
+     */
+    private TestResult printAndCollectStats(long testDurations, TimeUnit unit,
+            ClientSaturationDetector saturationDetector, TestResultWriter snapshotWriter) throws IOException {
         long startTime = System.nanoTime();
 
         // Print report stats
@@ -408,6 +517,7 @@ public class WorkloadGenerator implements AutoCloseable {
         result.testDetails.uuid = this.uniqueRunId.toString();
         result.testDetails.testStartTime = Instant.now().truncatedTo(ChronoUnit.SECONDS).toString().replaceAll("[TZ]", " ");
         result.testDetails.testRunDurationInMinutes =  TimeUnit.MINUTES.convert(testDurations, unit);
+        result.testDetails.workerJvmMetric = new JvmMetric();
 
         while (true) {
             try {
@@ -465,9 +575,63 @@ public class WorkloadGenerator implements AutoCloseable {
               .backlog(currentBacklog)
               .build();
 
+            if (stats.inFlightSamples > 0) {
+                double avgThinkTimeMs = microsToMillis(stats.thinkTimeMicros) / stats.inFlightSamples;
+                double avgInFlightWaitMs = microsToMillis(stats.inFlightWaitMicros) / stats.inFlightSamples;
+                double avgConcurrency = (double) stats.inFlightSum / stats.inFlightSamples;
+                log.info("Closed loop | Think time avg: {} ms | In-flight wait avg: {} ms | Concurrency avg: {} - Max: {}",
+                        dec.format(avgThinkTimeMs), dec.format(avgInFlightWaitMs), dec.format(avgConcurrency),
+                        stats.maxInFlight);
+                snapshotResult.avgThinkTimeMs = Precision.round(avgThinkTimeMs, 3);
+                snapshotResult.avgInFlightWaitMs = Precision.round(avgInFlightWaitMs, 3);
+                snapshotResult.avgConcurrency = Precision.round(avgConcurrency, 2);
+                snapshotResult.maxConcurrency = stats.maxInFlight;
+            }
+
             snapshotResult.latencyMetric.populatePublishLatency(stats.publishLatency);
             snapshotResult.latencyMetric.populateE2ELatency(stats.endToEndLatency);
-            result.snapshotResultList.add(snapshotResult);
+            snapshotResult.workerJvmMetric = JvmMetric.fromPeriod(stats, elapsed);
+            result.testDetails.workerJvmMetric.accumulate(stats, elapsed);
+
+            log.info("Worker JVM | GC pauses: {} - total {} ms - max {} ms | Heap after GC: {} MB | Alloc: {} MB/s | CPU: {} % - max worker {} %",
+                    stats.gcCount, stats.gcPauseMillis, stats.maxGcPauseMillis,
+                    snapshotResult.workerJvmMetric.heapAfterGcMaxMB, snapshotResult.workerJvmMetric.allocationRateMBps,
+                    snapshotResult.workerJvmMetric.processCpuPercent, snapshotResult.workerJvmMetric.processCpuMaxPercent);
+
+            if (recordingController != null) {
+                recordingController.onInterval(stats, snapshotResult.timeSinceTestStartInSeconds);
+            }
+
+            long scheduledSends = stats.producerPacedSends + stats.producerBehindScheduleSends;
+            if (scheduledSends > 0) {
+                snapshotResult.producerBehindSchedulePercent =
+                        Precision.round(100.0 * stats.producerBehindScheduleSends / scheduledSends, 2);
+            }
+            if (saturationDetector != null) {
+                List<String> reasons = saturationDetector.check(stats, elapsed, targetPublishRate);
+                if (!reasons.isEmpty()) {
+                    snapshotResult.clientBound = true;
+                    snapshotResult.clientBoundReason = String.join("; ", reasons);
+                    result.testDetails.clientBoundIntervals++;
+                    log.warn("Client-bound interval, the workers limit the load rather than the system under test: {}"
+                            + " | Producers behind schedule for {} ms", snapshotResult.clientBoundReason,
+                            dec.format(microsToMillis(stats.producerBehindScheduleMicros)));
+                }
+            }
+
+            if (snapshotWriter != null) {
+                snapshotWriter.append(snapshotResult);
+                snapshotWriter.appendHistograms((oldTime - startTime) / 1e9, (now - startTime) / 1e9,
+                        stats.publishLatency, stats.endToEndLatency);
+            } else {
+                result.snapshotResultList.add(snapshotResult);
+            }
+
+            if (saturationDetector != null && saturationDetector.shouldStop()) {
+                throw new IllegalStateException("Stopping the test, the workers have been saturated for "
+                        + workload.clientSaturationMaxIntervals + " intervals in a row: "
+                        + snapshotResult.clientBoundReason);
+            }
 
             if (now >= testEndTime && !needToWaitForBacklogDraining) {
                 boolean complete = false;
@@ -514,9 +678,10 @@ public class WorkloadGenerator implements AutoCloseable {
         return result;
     }
 
-    private static final DecimalFormat rateFormat = new PaddingDecimalFormat("0.000", 7);
-    private static final DecimalFormat throughputFormat = new PaddingDecimalFormat("0.000", 4);
-    private static final DecimalFormat dec = new PaddingDecimalFormat("0.000", 4);
+    // Per generator, DecimalFormat is not thread safe and tests can run concurrently
+    private final DecimalFormat rateFormat = new PaddingDecimalFormat("0.000", 7);
+    private final DecimalFormat throughputFormat = new PaddingDecimalFormat("0.000", 4);
+    private final DecimalFormat dec = new PaddingDecimalFormat("0.000", 4);
 
     private static final Logger log = LoggerFactory.getLogger(WorkloadGenerator.class);
 
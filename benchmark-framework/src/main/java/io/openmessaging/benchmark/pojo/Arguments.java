@@ -39,4 +39,24 @@ public class Arguments {
 
     @Parameter(names = {"-v", "--visualize"}, arity = 1, description = "To control whether to use ADX DataSink or not")
     public boolean visualizeUsingKusto = true;
+
+    @Parameter(names = {"-rs", "--result-sinks"}, description = "Where to publish the results besides the local files: "
+            + "kusto, file:<directory> or a ResultSink class name. Defaults to kusto when --visualize is true")
+    public List<String> resultSinks;
+
+    @Parameter(names = {"-bd", "--baseline-dir"}, description = "Directory with the results of a baseline run. Every "
+            + "test is compared with the baseline test of the same name and the run fails on a regression")
+    public String baselineDir;
+
+    @Parameter(names = {"-rt", "--regression-tolerance"}, description = "Relative change, e.g. 0.05, a metric must "
+            + "be worse than the baseline by to count as a regression")
+    public double regressionTolerance = 0.05;
+
+    @Parameter(names = {"--reuse-driver"}, description = "Keep the driver initialized between consecutive tests with "
+            + "the same driver configuration instead of resetting it before every test")
+    public boolean reuseDriver;
+
+    @Parameter(names = {"--reuse-topics"}, description = "Implies --reuse-driver. Consecutive tests with the same "
+            + "topics, producers and consumers keep them and go straight to warmup")
+    public boolean reuseTopics;
 }
@@ -1,10 +1,12 @@
 package io.openmessaging.benchmark.pojo;
 
 import io.openmessaging.benchmark.driver.DriverConfiguration;
+import io.openmessaging.benchmark.worker.Topic;
 import io.openmessaging.benchmark.worker.Worker;
 import lombok.Builder;
 import lombok.Getter;
 
+import java.util.List;
 import java.util.UUID;
 
 @Getter
@@ -13,6 +15,14 @@ public class TestRunInput {
     Arguments inputArguments;
     Worker benchmarkWorker;
     Workload testWorkload;
+    // File name of the workload, without extension
+    String workloadName;
     DriverConfiguration testDriver;
     UUID testRunID;
+    // The workers already run the test driver, left by the previous test of the session
+    boolean driverInitialized;
+    // Leave the driver initialized for the next test of the session
+    boolean keepDriver;
+    // Topics whose producers and consumers the previous test left open, null to create new ones
+    List<Topic> reusedTopics;
 }
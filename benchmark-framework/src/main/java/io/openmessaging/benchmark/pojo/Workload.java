@@ -18,7 +18,10 @@
  */
 package io.openmessaging.benchmark.pojo;
 
+import io.openmessaging.benchmark.utils.distributor.KeyDistributorSpec;
 import io.openmessaging.benchmark.utils.distributor.KeyDistributorType;
+import io.openmessaging.benchmark.utils.payload.PayloadSpec;
+import io.openmessaging.benchmark.worker.commands.LoadMode;
 
 public class Workload {
     public String name;
@@ -34,10 +37,16 @@ public class Workload {
 
     public KeyDistributorType keyDistributor = KeyDistributorType.NO_KEY;
 
+    /** Parameters of the ZIPFIAN, HOT_SET and PARTITION_WEIGHTED key distributors */
+    public KeyDistributorSpec keyDistributorSpec = new KeyDistributorSpec();
+
     public int messageSize;
 
     public String payloadFile;
 
+    /** Generate synthetic payloads instead of sending the content of payloadFile */
+    public PayloadSpec payload;
+
     public int subscriptionsPerTopic;
 
     public int producersPerTopic;
@@ -46,6 +55,52 @@ public class Workload {
 
     public int producerRate;
 
+    public LoadMode loadMode = LoadMode.OPEN_LOOP;
+
+    /** CLOSED_LOOP: maximum messages and bytes each producer keeps in flight, 0 for no limit */
+    public int maxInFlightMessages = 1000;
+
+    public int maxInFlightBytes = 0;
+
+    /** Number of threads driving the producers of each worker, the number of cores when 0 */
+    public int producerThreads;
+
+    /**
+     * Linux CPU lists (e.g. "0-7") to pin the producer threads and all the other threads of the workers to, so that
+     * producer threads don't compete with the driver I/O threads. Producer threads are pinned one CPU each,
+     * round-robin over the list.
+     */
+    public String producerCpus;
+
+    public String driverCpus;
+
+    /**
+     * What to do when the workers, rather than the system under test, limit the load: the intervals are always
+     * marked in the results, STOP also fails the test after clientSaturationMaxIntervals client-bound intervals in a
+     * row
+     */
+    public ClientSaturationAction clientSaturationAction = ClientSaturationAction.WARN;
+
+    public int clientSaturationMaxIntervals = 3;
+
+    /** CPU usage of the busiest worker process over which an interval is client-bound */
+    public double clientSaturationCpuPercent = 90;
+
+    /**
+     * Record JDK Flight Recorder events on the workers during the benchmark phase. The recordings are downloaded when
+     * the p99 publish latency of an interval exceeds workerRecordingLatencyCliffFactor times the median of the
+     * previous intervals (0 to disable), and at the end of the test
+     */
+    public boolean workerRecording = false;
+
+    /** JFR settings: "default", "profile" or the path of a .jfc file on the workers */
+    public String workerRecordingSettings = "profile";
+
+    /** History a downloaded recording covers */
+    public int workerRecordingWindowSeconds = 120;
+
+    public double workerRecordingLatencyCliffFactor = 3;
+
     /**
      * If the consumer backlog is > 0, the generator will accumulate messages until
      * the requested amount of storage is retained and then it will start the
@@ -74,6 +129,10 @@ public class Workload {
             throw new IllegalArgumentException("Consumer only tests need a backlog specification");
         }
 
+        if (loadMode == LoadMode.CLOSED_LOOP && maxInFlightMessages <= 0 && maxInFlightBytes <= 0) {
+            throw new IllegalArgumentException("Closed loop tests need a max in-flight messages or bytes");
+        }
+
         if (producerRate <= 0) {
             throw new IllegalArgumentException("Producer rate should be > 0");
         }
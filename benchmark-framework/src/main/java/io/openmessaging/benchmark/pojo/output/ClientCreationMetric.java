@@ -0,0 +1,52 @@
+package io.openmessaging.benchmark.pojo.output;
+
+import io.openmessaging.benchmark.worker.commands.ClientCreationStats;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.HdrHistogram.Histogram;
+import org.apache.commons.math3.util.Precision;
+
+/**
+ * Time it took the workers to create each producer and consumer of a test, in milliseconds
+ */
+@NoArgsConstructor
+@Data
+public class ClientCreationMetric {
+
+  public long producerCount;
+  public Double producerCreationAvgMs;
+  public Double producerCreation50pctMs;
+  public Double producerCreation99pctMs;
+  public Double producerCreationMaxMs;
+
+  public long consumerCount;
+  public Double consumerCreationAvgMs;
+  public Double consumerCreation50pctMs;
+  public Double consumerCreation99pctMs;
+  public Double consumerCreationMaxMs;
+
+  public static ClientCreationMetric fromStats(ClientCreationStats stats) {
+    ClientCreationMetric metric = new ClientCreationMetric();
+    Histogram producers = stats.producerCreationLatency;
+    metric.producerCount = producers.getTotalCount();
+    if (metric.producerCount > 0) {
+      metric.producerCreationAvgMs = microsToMillis(producers.getMean());
+      metric.producerCreation50pctMs = microsToMillis(producers.getValueAtPercentile(50));
+      metric.producerCreation99pctMs = microsToMillis(producers.getValueAtPercentile(99));
+      metric.producerCreationMaxMs = microsToMillis(producers.getMaxValue());
+    }
+    Histogram consumers = stats.consumerCreationLatency;
+    metric.consumerCount = consumers.getTotalCount();
+    if (metric.consumerCount > 0) {
+      metric.consumerCreationAvgMs = microsToMillis(consumers.getMean());
+      metric.consumerCreation50pctMs = microsToMillis(consumers.getValueAtPercentile(50));
+      metric.consumerCreation99pctMs = microsToMillis(consumers.getValueAtPercentile(99));
+      metric.consumerCreationMaxMs = microsToMillis(consumers.getMaxValue());
+    }
+    return metric;
+  }
+
+  private static double microsToMillis(double microTime) {
+    return Precision.round(microTime / 1000, 2);
+  }
+}
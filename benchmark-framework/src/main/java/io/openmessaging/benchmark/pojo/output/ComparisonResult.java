@@ -9,4 +9,11 @@ public class ComparisonResult {
     String metricName;
     double currentValue;
     double expectedValue;
+
+    // Set by the regression gate, see RegressionGate
+    String method;
+    Double ratio;
+    Double ratioLowerBound;
+    Double ratioUpperBound;
+    boolean regression;
 }
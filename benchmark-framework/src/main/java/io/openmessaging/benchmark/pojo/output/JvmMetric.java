@@ -0,0 +1,65 @@
+package io.openmessaging.benchmark.pojo.output;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.openmessaging.benchmark.worker.commands.PeriodStats;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.commons.math3.util.Precision;
+
+/**
+ * GC, allocation, CPU and thread metrics of the worker JVMs, either for one stats period or for the whole test.
+ * Counts and totals are summed over the workers, maximums are taken from the worst worker.
+ */
+@NoArgsConstructor
+@Data
+public class JvmMetric {
+
+  public long gcCount;
+  public Double gcPauseTotalMs;
+  public Double gcPauseMaxMs;
+  public Double allocationRateMBps;
+  public Double heapAfterGcMaxMB;
+  // Average over all the cores of all the workers, and the busiest worker
+  public Double processCpuPercent;
+  public Double processCpuMaxPercent;
+  public int threadCountMax;
+
+  @JsonIgnore private double elapsedSeconds;
+  @JsonIgnore private long allocatedBytes;
+  @JsonIgnore private double cpuMillis;
+  @JsonIgnore private double coreMillis;
+
+  public static JvmMetric fromPeriod(PeriodStats stats, double elapsedSeconds) {
+    JvmMetric metric = new JvmMetric();
+    metric.accumulate(stats, elapsedSeconds);
+    return metric;
+  }
+
+  /**
+   * Adds a stats period to the metric, used to summarize the whole test
+   */
+  public void accumulate(PeriodStats stats, double elapsedSeconds) {
+    this.elapsedSeconds += elapsedSeconds;
+    this.allocatedBytes += stats.allocatedBytes;
+    this.cpuMillis += stats.processCpuTimeMillis;
+    this.coreMillis += elapsedSeconds * 1000 * stats.availableProcessors;
+
+    gcCount += stats.gcCount;
+    gcPauseTotalMs = Precision.round(orZero(gcPauseTotalMs) + stats.gcPauseMillis, 2);
+    gcPauseMaxMs = Math.max(orZero(gcPauseMaxMs), stats.maxGcPauseMillis);
+    heapAfterGcMaxMB = Math.max(orZero(heapAfterGcMaxMB), toMB(stats.maxHeapAfterGcBytes));
+    processCpuMaxPercent = Math.max(orZero(processCpuMaxPercent), Precision.round(stats.maxProcessCpuPercent, 2));
+    threadCountMax = Math.max(threadCountMax, stats.maxThreadCount);
+
+    allocationRateMBps = this.elapsedSeconds > 0 ? Precision.round(toMB(allocatedBytes) / this.elapsedSeconds, 2) : 0;
+    processCpuPercent = coreMillis > 0 ? Precision.round(100 * cpuMillis / coreMillis, 2) : 0;
+  }
+
+  private static double orZero(Double value) {
+    return value == null ? 0 : value;
+  }
+
+  private static double toMB(long bytes) {
+    return Precision.round(bytes / 1024.0 / 1024.0, 2);
+  }
+}
@@ -2,9 +2,11 @@ package io.openmessaging.benchmark.pojo.output;
 
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
 @SuperBuilder
+@NoArgsConstructor
 @Data
 public class LatencyResult {
   public String uuid;
@@ -0,0 +1,20 @@
+package io.openmessaging.benchmark.pojo.output;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of comparing a test against its baseline, written next to the results as -regression.json
+ */
+@NoArgsConstructor
+@Data
+public class RegressionReport {
+  public String baseline;
+  public String current;
+  public int baselineIntervals;
+  public int currentIntervals;
+  public boolean regression;
+  public List<ComparisonResult> comparisons = new ArrayList<>();
+}
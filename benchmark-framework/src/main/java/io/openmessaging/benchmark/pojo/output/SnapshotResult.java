@@ -1,9 +1,11 @@
 package io.openmessaging.benchmark.pojo.output;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
 @SuperBuilder
+@NoArgsConstructor
 @Data
 public class SnapshotResult extends LatencyResult {
 
@@ -13,4 +15,17 @@ public class SnapshotResult extends LatencyResult {
   public Double consumeRate;
   public Double publishErrorRate;
   public long backlog;
+
+  // Closed-loop producers only
+  public Double avgThinkTimeMs;
+  public Double avgInFlightWaitMs;
+  public Double avgConcurrency;
+  public Long maxConcurrency;
+
+  public JvmMetric workerJvmMetric;
+
+  // Set when the workers, not the system under test, limited the load in the interval
+  public boolean clientBound;
+  public String clientBoundReason;
+  public Double producerBehindSchedulePercent;
 }
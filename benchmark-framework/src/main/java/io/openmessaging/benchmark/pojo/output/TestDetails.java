@@ -11,4 +11,7 @@ public class TestDetails {
     public String sku;
     public String protocol;
     public Metadata metadata;
+    public JvmMetric workerJvmMetric;
+    public int clientBoundIntervals;
+    public ClientCreationMetric clientCreation;
 }
@@ -18,6 +18,8 @@
  */
 package io.openmessaging.benchmark.pojo.output;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.openmessaging.benchmark.worker.Topic;
 import lombok.Data;
 
 import java.util.ArrayList;
@@ -29,4 +31,12 @@ public class TestResult {
     public TestDetails testDetails;
     public List<SnapshotResult> snapshotResultList = new ArrayList<>();
     public LatencyResult aggregateResult;
+
+    /** Set when the result files were already written while the test ran, see TestResultWriter */
+    @JsonIgnore
+    public String fileNamePrefix;
+
+    /** Topics of the test, which a session can hand over to its next test, see BenchmarkSession */
+    @JsonIgnore
+    public List<Topic> topics;
 }
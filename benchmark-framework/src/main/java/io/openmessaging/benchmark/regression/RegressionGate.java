@@ -0,0 +1,206 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.regression;
+
+import io.openmessaging.benchmark.pojo.output.ComparisonResult;
+import io.openmessaging.benchmark.pojo.output.LatencyMetric;
+import io.openmessaging.benchmark.pojo.output.RegressionReport;
+import io.openmessaging.benchmark.pojo.output.SnapshotResult;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import org.HdrHistogram.Histogram;
+import org.apache.commons.math3.util.Precision;
+
+/**
+ * Compares a test against a baseline run of the same test.
+ *
+ * <p>Every metric is taken per stats interval, from the interval histograms when the tests have histogram logs and
+ * from the snapshots otherwise. A moving-block bootstrap over the intervals, which keeps the correlation between
+ * neighbouring intervals, gives a confidence interval of the ratio between the current and the baseline mean. A
+ * metric regresses when the whole interval is worse than the baseline by more than the tolerance, so that noisy runs
+ * are not flagged and tiny but consistent shifts are not either. Tests with too few intervals fall back to the fixed
+ * threshold comparison of their aggregates.
+ */
+public class RegressionGate {
+
+    static final int MIN_INTERVALS = 5;
+    static final int RESAMPLES = 2000;
+    static final double CONFIDENCE = 0.95;
+
+    private final double tolerance;
+    private final Random random;
+
+    /**
+     * @param tolerance relative change, e.g. 0.05, a metric must be worse by at the edge of its confidence interval
+     */
+    public RegressionGate(double tolerance, long seed) {
+        this.tolerance = tolerance;
+        this.random = new Random(seed);
+    }
+
+    public RegressionReport compare(ResultSet baseline, ResultSet current) {
+        RegressionReport report = new RegressionReport();
+        report.baseline = baseline.fileNamePrefix;
+        report.current = current.fileNamePrefix;
+        report.baselineIntervals = baseline.snapshots.size();
+        report.currentIntervals = current.snapshots.size();
+
+        if (baseline.snapshots.size() < MIN_INTERVALS || current.snapshots.size() < MIN_INTERVALS) {
+            if (baseline.aggregate != null && current.aggregate != null) {
+                for (ComparisonResult comparison : current.aggregate.latencyMetric
+                        .compareAndEvaluateDiff(baseline.aggregate.latencyMetric, tolerance * 100)) {
+                    comparison.setMethod("threshold");
+                    comparison.setRegression(true);
+                    report.comparisons.add(comparison);
+                }
+            }
+        } else {
+            for (Metric metric : metrics(baseline, current)) {
+                ComparisonResult comparison = compare(metric, metric.values.apply(baseline),
+                        metric.values.apply(current));
+                if (comparison != null) {
+                    report.comparisons.add(comparison);
+                }
+            }
+        }
+
+        report.regression = report.comparisons.stream().anyMatch(ComparisonResult::isRegression);
+        return report;
+    }
+
+    private ComparisonResult compare(Metric metric, double[] baseline, double[] current) {
+        if (baseline.length < MIN_INTERVALS || current.length < MIN_INTERVALS) {
+            return null;
+        }
+        double baselineMean = mean(baseline);
+        double currentMean = mean(current);
+        if (baselineMean <= 0) {
+            return null;
+        }
+
+        double[] ratios = new double[RESAMPLES];
+        for (int i = 0; i < RESAMPLES; i++) {
+            double resampledBaseline = blockResampledMean(baseline);
+            ratios[i] = resampledBaseline > 0 ? blockResampledMean(current) / resampledBaseline : 1;
+        }
+        Arrays.sort(ratios);
+        double alpha = (1 - CONFIDENCE) / 2;
+        double lower = ratios[(int) Math.floor(alpha * (RESAMPLES - 1))];
+        double upper = ratios[(int) Math.ceil((1 - alpha) * (RESAMPLES - 1))];
+
+        boolean regression = metric.higherIsBetter ? upper < 1 - tolerance : lower > 1 + tolerance;
+        return ComparisonResult.builder()
+                .metricName(metric.name)
+                .currentValue(Precision.round(currentMean, 3))
+                .expectedValue(Precision.round(baselineMean, 3))
+                .method("bootstrap")
+                .ratio(Precision.round(currentMean / baselineMean, 4))
+                .ratioLowerBound(Precision.round(lower, 4))
+                .ratioUpperBound(Precision.round(upper, 4))
+                .regression(regression)
+                .build();
+    }
+
+    private double blockResampledMean(double[] values) {
+        int n = values.length;
+        int blockLength = Math.max(1, (int) Math.round(Math.cbrt(n)));
+        double sum = 0;
+        int count = 0;
+        while (count < n) {
+            int start = random.nextInt(n - blockLength + 1);
+            for (int i = start; i < start + blockLength && count < n; i++, count++) {
+                sum += values[i];
+            }
+        }
+        return sum / n;
+    }
+
+    private static double mean(double[] values) {
+        return Arrays.stream(values).average().orElse(0);
+    }
+
+    private static List<Metric> metrics(ResultSet baseline, ResultSet current) {
+        List<Metric> metrics = new ArrayList<>();
+        metrics.add(snapshotMetric("PublishRate", true, s -> s.publishRate));
+        metrics.add(snapshotMetric("ConsumeRate", true, s -> s.consumeRate));
+
+        boolean histograms = !baseline.publishLatencies.isEmpty() && !current.publishLatencies.isEmpty();
+        if (histograms) {
+            metrics.add(histogramMetric("PublishLatencyAvg", r -> r.publishLatencies, Histogram::getMean));
+            metrics.add(histogramMetric("PublishLatencyP50", r -> r.publishLatencies, h -> h.getValueAtPercentile(50)));
+            metrics.add(histogramMetric("PublishLatencyP99", r -> r.publishLatencies, h -> h.getValueAtPercentile(99)));
+            metrics.add(histogramMetric("PublishLatencyP99.9", r -> r.publishLatencies,
+                    h -> h.getValueAtPercentile(99.9)));
+            metrics.add(histogramMetric("E2ELatencyAvg", r -> r.endToEndLatencies, Histogram::getMean));
+            metrics.add(histogramMetric("E2ELatencyP50", r -> r.endToEndLatencies, h -> h.getValueAtPercentile(50)));
+            metrics.add(histogramMetric("E2ELatencyP99", r -> r.endToEndLatencies, h -> h.getValueAtPercentile(99)));
+            metrics.add(histogramMetric("E2ELatencyP99.9", r -> r.endToEndLatencies,
+                    h -> h.getValueAtPercentile(99.9)));
+        } else {
+            metrics.add(snapshotMetric("PublishLatencyAvg", false, latency(l -> l.publishLatencyAvg)));
+            metrics.add(snapshotMetric("PublishLatencyP95", false, latency(l -> l.publishLatency95pct)));
+            metrics.add(snapshotMetric("PublishLatencyP99", false, latency(l -> l.publishLatency99pct)));
+            metrics.add(snapshotMetric("PublishLatencyP99.9", false, latency(l -> l.publishLatency999pct)));
+            metrics.add(snapshotMetric("E2ELatencyAvg", false, latency(l -> l.endToEndLatencyAvg)));
+            metrics.add(snapshotMetric("E2ELatencyP95", false, latency(l -> l.endToEndLatency95pct)));
+            metrics.add(snapshotMetric("E2ELatencyP99", false, latency(l -> l.endToEndLatency99pct)));
+            metrics.add(snapshotMetric("E2ELatencyP99.9", false, latency(l -> l.endToEndLatency999pct)));
+        }
+        return metrics;
+    }
+
+    private static Metric snapshotMetric(String name, boolean higherIsBetter, Function<SnapshotResult, Double> value) {
+        return new Metric(name, higherIsBetter, results -> results.snapshots.stream()
+                .map(value)
+                .filter(v -> v != null && !v.isNaN())
+                .mapToDouble(Double::doubleValue)
+                .toArray());
+    }
+
+    private static Function<SnapshotResult, Double> latency(Function<LatencyMetric, Double> value) {
+        return s -> s.latencyMetric != null ? value.apply(s.latencyMetric) : null;
+    }
+
+    /**
+     * Latency metric in milliseconds computed from every non-empty interval histogram
+     */
+    private static Metric histogramMetric(String name, Function<ResultSet, List<Histogram>> histograms,
+            ToDoubleFunction<Histogram> value) {
+        return new Metric(name, false, results -> histograms.apply(results).stream()
+                .filter(h -> h.getTotalCount() > 0)
+                .mapToDouble(h -> value.applyAsDouble(h) / 1000)
+                .toArray());
+    }
+
+    private static final class Metric {
+        final String name;
+        final boolean higherIsBetter;
+        final Function<ResultSet, double[]> values;
+
+        Metric(String name, boolean higherIsBetter, Function<ResultSet, double[]> values) {
+            this.name = name;
+            this.higherIsBetter = higherIsBetter;
+            this.values = values;
+        }
+    }
+}
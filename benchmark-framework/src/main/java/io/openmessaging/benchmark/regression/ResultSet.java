@@ -0,0 +1,142 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.regression;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.openmessaging.benchmark.TestResultWriter;
+import io.openmessaging.benchmark.pojo.output.LatencyResult;
+import io.openmessaging.benchmark.pojo.output.SnapshotResult;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.HdrHistogram.EncodableHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+
+/**
+ * The results of one test as written by {@link TestResultWriter}: the interval snapshots, the aggregate and, when
+ * present, the interval latency histograms.
+ */
+public class ResultSet {
+
+    private static final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    // Timestamp ending the file names generated when no output name is given
+    private static final String TIMESTAMP_SUFFIX = "-\\d{4}-\\d{2}-\\d{2}-\\d{2}-\\d{2}-\\d{2}";
+    private static final String SNAPSHOT_SUFFIX = "-snapshot.json";
+
+    public final String fileNamePrefix;
+    public final List<SnapshotResult> snapshots;
+    public final LatencyResult aggregate;
+    // Empty when the test has no histogram logs
+    public final List<Histogram> publishLatencies;
+    public final List<Histogram> endToEndLatencies;
+
+    ResultSet(String fileNamePrefix, List<SnapshotResult> snapshots, LatencyResult aggregate,
+            List<Histogram> publishLatencies, List<Histogram> endToEndLatencies) {
+        this.fileNamePrefix = fileNamePrefix;
+        this.snapshots = snapshots;
+        this.aggregate = aggregate;
+        this.publishLatencies = publishLatencies;
+        this.endToEndLatencies = endToEndLatencies;
+    }
+
+    public static boolean exists(String fileNamePrefix) {
+        return new File(fileNamePrefix + SNAPSHOT_SUFFIX).exists();
+    }
+
+    /**
+     * Results in the baseline directory to compare the given test with: those of the same file name or, when the name
+     * ends with a generated timestamp, the latest ones of the same product, protocol and workload.
+     *
+     * @return the file name prefix of the baseline results, null when there are none
+     */
+    public static String findBaseline(File baselineDir, String fileNamePrefix) {
+        String name = new File(fileNamePrefix).getName();
+        File sameName = new File(baselineDir, name);
+        if (exists(sameName.getPath())) {
+            return sameName.getPath();
+        }
+        Matcher timestamp = Pattern.compile(TIMESTAMP_SUFFIX + "$").matcher(name);
+        if (!timestamp.find()) {
+            return null;
+        }
+        Pattern sameTest = Pattern.compile(Pattern.quote(name.substring(0, timestamp.start())) + TIMESTAMP_SUFFIX
+                + Pattern.quote(SNAPSHOT_SUFFIX));
+        String[] candidates = baselineDir.list((dir, file) -> sameTest.matcher(file).matches());
+        if (candidates == null || candidates.length == 0) {
+            return null;
+        }
+        // The timestamps sort chronologically
+        Arrays.sort(candidates);
+        String latest = candidates[candidates.length - 1];
+        return new File(baselineDir, latest.substring(0, latest.length() - SNAPSHOT_SUFFIX.length())).getPath();
+    }
+
+    public static ResultSet load(String fileNamePrefix) throws IOException {
+        File aggregateFile = new File(fileNamePrefix + "-aggregate.json");
+        LatencyResult aggregate = aggregateFile.exists() ? mapper.readValue(aggregateFile, LatencyResult.class) : null;
+        return new ResultSet(fileNamePrefix,
+                readSnapshots(new File(fileNamePrefix + "-snapshot.json")),
+                aggregate,
+                readHistograms(new File(fileNamePrefix + TestResultWriter.PUBLISH_LATENCY_LOG_SUFFIX)),
+                readHistograms(new File(fileNamePrefix + TestResultWriter.END_TO_END_LATENCY_LOG_SUFFIX)));
+    }
+
+    /**
+     * Reads newline-delimited snapshots, or the JSON array written by older versions
+     */
+    private static List<SnapshotResult> readSnapshots(File file) throws IOException {
+        String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim();
+        if (content.startsWith("[")) {
+            return new ArrayList<>(Arrays.asList(mapper.readValue(content, SnapshotResult[].class)));
+        }
+        List<SnapshotResult> snapshots = new ArrayList<>();
+        for (String line : content.split("\n")) {
+            if (!line.trim().isEmpty()) {
+                snapshots.add(mapper.readValue(line, SnapshotResult.class));
+            }
+        }
+        return snapshots;
+    }
+
+    private static List<Histogram> readHistograms(File file) throws IOException {
+        List<Histogram> histograms = new ArrayList<>();
+        if (!file.exists()) {
+            return histograms;
+        }
+        try (FileInputStream in = new FileInputStream(file)) {
+            HistogramLogReader reader = new HistogramLogReader(in);
+            EncodableHistogram histogram;
+            while ((histogram = reader.nextIntervalHistogram()) != null) {
+                histograms.add((Histogram) histogram);
+            }
+        }
+        return histograms;
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.sink;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Local stand-in for Kusto: appends the results to one newline-delimited JSON file per Kusto table in a directory,
+ * which can be queried with jq or loaded into any store later.
+ */
+public class FileResultSink implements ResultSink {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final File directory;
+    // Tables the last batch was appended to, which a retry of the same batch skips
+    private List<String> lastBatch;
+    private Set<String> appendedTables = new HashSet<>();
+
+    public FileResultSink(File directory) throws IOException {
+        this.directory = directory;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create result directory " + directory);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "file:" + directory;
+    }
+
+    @Override
+    public void publish(List<String> fileNamePrefixes) throws IOException {
+        // Read everything first, so that a missing or corrupt file does not leave a batch half appended
+        List<String> details = new ArrayList<>();
+        List<String> snapshots = new ArrayList<>();
+        List<String> aggregates = new ArrayList<>();
+        for (String fileNamePrefix : fileNamePrefixes) {
+            details.add(compact(new File(fileNamePrefix + "-details.json")));
+            for (String line : Files.readAllLines(new File(fileNamePrefix + "-snapshot.json").toPath())) {
+                if (!line.trim().isEmpty()) {
+                    snapshots.add(line);
+                }
+            }
+            aggregates.add(compact(new File(fileNamePrefix + "-aggregate.json")));
+        }
+
+        if (!fileNamePrefixes.equals(lastBatch)) {
+            lastBatch = fileNamePrefixes;
+            appendedTables = new HashSet<>();
+        }
+        append("PerformanceRunDetails.json", details);
+        append("PerformanceRunIndividualSnapshots.json", snapshots);
+        append("PerformanceRunAggregates.json", aggregates);
+    }
+
+    private static String compact(File file) throws IOException {
+        JsonNode node = mapper.readTree(file);
+        return mapper.writeValueAsString(node);
+    }
+
+    /**
+     * Appends the lines to the table once per batch. A failed append is truncated away, so that the table holds all the
+     * lines of the batch or none of them.
+     */
+    private void append(String fileName, List<String> lines) throws IOException {
+        if (appendedTables.contains(fileName)) {
+            return;
+        }
+        try (FileOutputStream out = new FileOutputStream(new File(directory, fileName), true)) {
+            long length = out.getChannel().size();
+            try {
+                for (String line : lines) {
+                    out.write(line.getBytes(StandardCharsets.UTF_8));
+                    out.write('\n');
+                }
+                out.getFD().sync();
+            } catch (IOException e) {
+                try {
+                    out.getChannel().truncate(length);
+                } catch (IOException truncateException) {
+                    e.addSuppressed(truncateException);
+                }
+                throw e;
+            }
+        }
+        appendedTables.add(fileName);
+    }
+}
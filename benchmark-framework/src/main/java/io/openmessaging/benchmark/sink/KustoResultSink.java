@@ -0,0 +1,64 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.sink;
+
+import io.openmessaging.benchmark.appconfig.adapter.ConfigProvider;
+import io.openmessaging.benchmark.appconfig.adapter.ConfigurationKey;
+import io.openmessaging.benchmark.kusto.adapter.KustoAdapter;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Ingests the result files into the Kusto cluster of the app configuration. A retried batch only ingests the files
+ * that failed, so that a partial failure does not duplicate rows.
+ */
+public class KustoResultSink implements ResultSink {
+
+    private final KustoAdapter adapter;
+    private List<String> lastBatch;
+    private List<String> remainingFiles;
+
+    public KustoResultSink() throws Exception {
+        ConfigProvider provider = ConfigProvider.getInstance();
+        this.adapter = new KustoAdapter(provider.getConfigurationValue(ConfigurationKey.KustoEndpoint),
+                provider.getConfigurationValue(ConfigurationKey.KustoDatabaseName));
+    }
+
+    @Override
+    public String getName() {
+        return "kusto";
+    }
+
+    @Override
+    public void publish(List<String> fileNamePrefixes) throws Exception {
+        if (!fileNamePrefixes.equals(lastBatch)) {
+            lastBatch = fileNamePrefixes;
+            remainingFiles = KustoAdapter.resultFiles(fileNamePrefixes);
+        }
+        remainingFiles = adapter.ingestFiles(remainingFiles);
+        if (!remainingFiles.isEmpty()) {
+            throw new IOException("Failed to ingest " + remainingFiles);
+        }
+    }
+
+    @Override
+    public void close() {
+        adapter.close();
+    }
+}
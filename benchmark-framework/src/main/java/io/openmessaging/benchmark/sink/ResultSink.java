@@ -0,0 +1,43 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.sink;
+
+import java.util.List;
+
+/**
+ * Destination of the test results, fed asynchronously by {@link ResultSinkPipeline}.
+ *
+ * <p>Implementations are selected with {@code --result-sinks}: {@code kusto}, {@code file:<directory>}, or the class
+ * name of an implementation with a public no-argument constructor.
+ */
+public interface ResultSink extends AutoCloseable {
+
+    String getName();
+
+    /**
+     * Publishes the results of a batch of tests, identified by the prefix of their -details.json, -snapshot.json and
+     * -aggregate.json files. Only called from the pipeline thread. Throwing makes the pipeline retry the same batch
+     * after a backoff.
+     */
+    void publish(List<String> fileNamePrefixes) throws Exception;
+
+    @Override
+    default void close() throws Exception {
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.sink;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publishes test results to the result sinks on a background thread, so that the next test never waits on
+ * ingestion.
+ *
+ * <p>Submitting never blocks: the queue is bounded and a result that does not fit only stays in its local files.
+ * Tests that queue up while a sink is slow are published together in one batch. A failed batch is retried with an
+ * exponential backoff, then given up on.
+ */
+public class ResultSinkPipeline implements AutoCloseable {
+
+    static final int QUEUE_CAPACITY = 100;
+    static final int MAX_BATCH_SIZE = 10;
+    static final int MAX_ATTEMPTS = 5;
+    static final long INITIAL_BACKOFF_MILLIS = 1000;
+
+    private final List<ResultSink> sinks;
+    private final BlockingQueue<String> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread publisher;
+    private volatile boolean closed = false;
+
+    public ResultSinkPipeline(List<ResultSink> sinks) {
+        this.sinks = sinks;
+        this.publisher = new Thread(this::publishLoop, "result-sink-publisher");
+        this.publisher.setDaemon(true);
+        this.publisher.start();
+    }
+
+    /**
+     * Creates a sink from its --result-sinks specification
+     */
+    public static ResultSink createSink(String spec) throws Exception {
+        if (spec.equals("kusto")) {
+            return new KustoResultSink();
+        } else if (spec.startsWith("file:")) {
+            return new FileResultSink(new File(spec.substring("file:".length())));
+        }
+        try {
+            return (ResultSink) Class.forName(spec).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalArgumentException("Invalid result sink: " + spec, e);
+        }
+    }
+
+    /**
+     * Queues the results of a test for publishing, returns false if the queue is full
+     */
+    public boolean submit(String fileNamePrefix) {
+        if (closed || !queue.offer(fileNamePrefix)) {
+            log.error("Result sink queue is full or closed, {} is only kept in the local files", fileNamePrefix);
+            return false;
+        }
+        return true;
+    }
+
+    private void publishLoop() {
+        while (!closed || !queue.isEmpty()) {
+            List<String> batch = new ArrayList<>();
+            try {
+                String first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                for (ResultSink sink : sinks) {
+                    publishWithRetries(sink, batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Stopped publishing results, {} tests not published", batch.size() + queue.size());
+                return;
+            }
+        }
+    }
+
+    private void publishWithRetries(ResultSink sink, List<String> batch) throws InterruptedException {
+        long backoffMillis = INITIAL_BACKOFF_MILLIS;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                sink.publish(batch);
+                log.info("Published {} to {}", batch, sink.getName());
+                return;
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    log.error("Giving up publishing {} to {} after {} attempts", batch, sink.getName(), attempt, e);
+                    return;
+                }
+                log.warn("Failed to publish {} to {}, retrying in {} ms: {}", batch, sink.getName(), backoffMillis,
+                        e.getMessage());
+                Thread.sleep(backoffMillis);
+                backoffMillis *= 2;
+            }
+        }
+    }
+
+    /**
+     * Waits up to the timeout for the queued results to be published, then closes the sinks
+     */
+    public void close(long timeout, TimeUnit unit) throws InterruptedException {
+        closed = true;
+        publisher.join(unit.toMillis(timeout));
+        if (publisher.isAlive()) {
+            publisher.interrupt();
+            publisher.join();
+        }
+        for (ResultSink sink : sinks) {
+            try {
+                sink.close();
+            } catch (Exception e) {
+                log.warn("Failed to close result sink {}", sink.getName(), e);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        close(10, TimeUnit.MINUTES);
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(ResultSinkPipeline.class);
+}
@@ -19,37 +19,59 @@
 package io.openmessaging.benchmark.utils.distributor;
 
 import com.google.common.io.BaseEncoding;
+import io.openmessaging.benchmark.utils.Murmur2;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class KeyDistributor {
 
     private static final int UNIQUE_COUNT = 10_000;
     private static final int KEY_BYTE_SIZE = 7;
 
-    private static final String[] randomKeys = new String[UNIQUE_COUNT];
     private static final Random random = new Random();
+    private static final KeySet randomKeys = KeySet.generate(UNIQUE_COUNT, random);
+    private static final Map<String, KeySet> seededKeys = new ConcurrentHashMap<>();
 
-    static {
-        // Generate a number of random keys to be used when publishing
-        byte[] buffer = new byte[KEY_BYTE_SIZE];
-        for (int i = 0; i < randomKeys.length; i++) {
-            random.nextBytes(buffer);
-            randomKeys[i] = BaseEncoding.base64Url().omitPadding().encode(buffer);
-        }
+    private final KeySet keySet;
+
+    protected KeyDistributor() {
+        this(randomKeys);
     }
 
-    protected String get(int index) {
-        return randomKeys[index];
+    KeyDistributor(KeySet keySet) {
+        this.keySet = keySet;
     }
 
     protected int getLength() {
-        return UNIQUE_COUNT;
+        return keySet.strings.length;
+    }
+
+    /**
+     * Index of the next key, or -1 for no key. Implementations must be safe to share between threads.
+     */
+    protected abstract int nextIndex();
+
+    public String next() {
+        int index = nextIndex();
+        return index < 0 ? null : keySet.strings[index];
     }
 
-    public abstract String next();
+    /**
+     * Same as {@link #next()} with the key already encoded in UTF-8, the returned array must not be modified
+     */
+    public byte[] nextBytes() {
+        int index = nextIndex();
+        return index < 0 ? null : keySet.bytes[index];
+    }
 
     public static KeyDistributor build(KeyDistributorType keyType) {
+        return build(keyType, new KeyDistributorSpec());
+    }
+
+    public static KeyDistributor build(KeyDistributorType keyType, KeyDistributorSpec spec) {
         KeyDistributor keyDistributor = null;
         switch (keyType) {
             case NO_KEY:
@@ -61,8 +83,97 @@ public abstract class KeyDistributor {
             case RANDOM_NANO:
                 keyDistributor = new RandomNano();
                 break;
+            case ZIPFIAN:
+                keyDistributor = new WeightedKeyDistributor(keys(spec), zipfianWeights(spec));
+                break;
+            case HOT_SET:
+                keyDistributor = new WeightedKeyDistributor(keys(spec), hotSetWeights(spec));
+                break;
+            case PARTITION_WEIGHTED:
+                KeySet keys = keys(spec);
+                keyDistributor = new WeightedKeyDistributor(keys, partitionWeights(keys.strings, spec));
+                break;
         }
         return keyDistributor;
     }
 
+    /**
+     * Keys generated from the spec seed, the same on every worker
+     */
+    private static KeySet keys(KeyDistributorSpec spec) {
+        if (spec.keyCount <= 0) {
+            throw new IllegalArgumentException("Key count should be > 0");
+        }
+        return seededKeys.computeIfAbsent(spec.keyCount + "/" + spec.seed,
+                k -> KeySet.generate(spec.keyCount, new Random(spec.seed)));
+    }
+
+    static double[] zipfianWeights(KeyDistributorSpec spec) {
+        double[] weights = new double[spec.keyCount];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = 1.0 / Math.pow(i + 1, spec.zipfExponent);
+        }
+        return weights;
+    }
+
+    static double[] hotSetWeights(KeyDistributorSpec spec) {
+        int hotKeys = (int) Math.max(1, Math.min(spec.keyCount, Math.round(spec.keyCount * spec.hotSetPercentage / 100)));
+        int coldKeys = spec.keyCount - hotKeys;
+        double[] weights = new double[spec.keyCount];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = i < hotKeys
+                    ? spec.hotTrafficPercentage / hotKeys
+                    : (100 - spec.hotTrafficPercentage) / coldKeys;
+        }
+        return weights;
+    }
+
+    /**
+     * Splits the weight of every partition evenly between the keys that hash to it with Kafka's default partitioner.
+     * Other brokers hash keys differently, for them the weights only skew arbitrary groups of keys.
+     */
+    static double[] partitionWeights(String[] keys, KeyDistributorSpec spec) {
+        if (spec.partitions <= 0) {
+            throw new IllegalArgumentException("PARTITION_WEIGHTED needs the number of partitions");
+        }
+        int[] keyPartitions = new int[keys.length];
+        int[] keysPerPartition = new int[spec.partitions];
+        for (int i = 0; i < keys.length; i++) {
+            keyPartitions[i] = Murmur2.partition(keys[i].getBytes(StandardCharsets.UTF_8), spec.partitions);
+            keysPerPartition[keyPartitions[i]]++;
+        }
+
+        double[] weights = new double[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            double partitionWeight = spec.partitionWeights.getOrDefault(keyPartitions[i], 1.0);
+            weights[i] = partitionWeight / keysPerPartition[keyPartitions[i]];
+        }
+        return weights;
+    }
+
+    /**
+     * Random keys, with their UTF-8 encoding computed once
+     */
+    static final class KeySet {
+        final String[] strings;
+        final byte[][] bytes;
+
+        private KeySet(String[] strings) {
+            this.strings = strings;
+            this.bytes = new byte[strings.length][];
+            for (int i = 0; i < strings.length; i++) {
+                bytes[i] = strings[i].getBytes(StandardCharsets.UTF_8);
+            }
+        }
+
+        static KeySet generate(int count, Random random) {
+            byte[] buffer = new byte[KEY_BYTE_SIZE];
+            String[] keys = new String[count];
+            for (int i = 0; i < keys.length; i++) {
+                random.nextBytes(buffer);
+                keys[i] = BaseEncoding.base64Url().omitPadding().encode(buffer);
+            }
+            return new KeySet(keys);
+        }
+    }
 }
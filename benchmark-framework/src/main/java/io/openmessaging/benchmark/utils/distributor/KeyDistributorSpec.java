@@ -0,0 +1,62 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.utils.distributor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parameters of the skewed key distributions
+ */
+public class KeyDistributorSpec {
+
+    /** Number of distinct keys */
+    public int keyCount = 10_000;
+
+    /** Exponent of the ZIPFIAN distribution, the key of rank k gets a weight of 1 / k^exponent */
+    public double zipfExponent = 1.0;
+
+    /** HOT_SET: percentage of the keys that are hot, and percentage of the messages sent with a hot key */
+    public double hotSetPercentage = 20;
+
+    public double hotTrafficPercentage = 80;
+
+    /**
+     * PARTITION_WEIGHTED: relative weight of each partition, partitions missing from the map get a weight of 1
+     */
+    public Map<Integer, Double> partitionWeights = new HashMap<>();
+
+    /** Number of partitions of the topics, set from the workload */
+    public int partitions;
+
+    /** Seed of the key generator, so that all the workers agree on which keys are hot */
+    public long seed = 42;
+
+    public KeyDistributorSpec copy() {
+        KeyDistributorSpec copy = new KeyDistributorSpec();
+        copy.keyCount = this.keyCount;
+        copy.zipfExponent = this.zipfExponent;
+        copy.hotSetPercentage = this.hotSetPercentage;
+        copy.hotTrafficPercentage = this.hotTrafficPercentage;
+        copy.partitionWeights = new HashMap<>(this.partitionWeights);
+        copy.partitions = this.partitions;
+        copy.seed = this.seed;
+        return copy;
+    }
+}
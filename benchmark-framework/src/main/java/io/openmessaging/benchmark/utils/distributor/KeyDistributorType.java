@@ -36,4 +36,19 @@ public enum KeyDistributorType {
      * Random distribution based on System.nanoTime()
      */
     RANDOM_NANO,
+
+    /**
+     * Zipfian distribution over the keys, with a configurable exponent
+     */
+    ZIPFIAN,
+
+    /**
+     * A percentage of the keys receives a percentage of the traffic, uniformly within the hot and cold sets
+     */
+    HOT_SET,
+
+    /**
+     * Keys picked so that each partition receives traffic proportional to its configured weight
+     */
+    PARTITION_WEIGHTED,
 }
@@ -18,18 +18,20 @@
  */
 package io.openmessaging.benchmark.utils.distributor;
 
-import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
 
-@NotThreadSafe
+@ThreadSafe
 public class KeyRoundRobin extends KeyDistributor {
 
-    private int currentIndex = 0;
+    // Each thread cycles through the keys on its own, so sharing the distributor doesn't need synchronization
+    private final ThreadLocal<int[]> currentIndex = ThreadLocal.withInitial(() -> new int[1]);
 
     @Override
-    public String next() {
-        if (++currentIndex >= getLength()) {
-            currentIndex = 0;
+    protected int nextIndex() {
+        int[] index = currentIndex.get();
+        if (++index[0] >= getLength()) {
+            index[0] = 0;
         }
-        return get(currentIndex);
+        return index[0];
     }
 }
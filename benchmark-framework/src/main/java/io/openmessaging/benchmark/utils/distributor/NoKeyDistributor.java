@@ -21,7 +21,7 @@ package io.openmessaging.benchmark.utils.distributor;
 public class NoKeyDistributor extends KeyDistributor {
 
     @Override
-    public String next() {
-        return null;
+    protected int nextIndex() {
+        return -1;
     }
 }
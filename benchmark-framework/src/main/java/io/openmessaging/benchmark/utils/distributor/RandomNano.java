@@ -23,8 +23,8 @@ import javax.annotation.concurrent.ThreadSafe;
 @ThreadSafe
 public class RandomNano extends KeyDistributor {
 
-    public String next() {
-        int randomIndex = Math.abs((int) System.nanoTime() % getLength());
-        return get(randomIndex);
+    @Override
+    protected int nextIndex() {
+        return Math.abs((int) System.nanoTime() % getLength());
     }
 }
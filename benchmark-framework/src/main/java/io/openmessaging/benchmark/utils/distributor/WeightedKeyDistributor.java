@@ -0,0 +1,43 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.utils.distributor;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Picks keys following precomputed weights, backs the skewed distributions
+ */
+@ThreadSafe
+public class WeightedKeyDistributor extends KeyDistributor {
+
+    private final AliasTable aliasTable;
+
+    WeightedKeyDistributor(KeySet keys, double[] weights) {
+        super(keys);
+        if (keys.strings.length != weights.length) {
+            throw new IllegalArgumentException("Expected one weight per key");
+        }
+        this.aliasTable = new AliasTable(weights);
+    }
+
+    @Override
+    protected int nextIndex() {
+        return aliasTable.next();
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.utils.payload;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fixed set of payloads generated up-front, so that picking the payload of a message doesn't allocate.
+ */
+public class PayloadPool {
+
+    // Upper bound of the memory taken by a pool, large payloads get a smaller pool
+    private static final long MAX_POOL_BYTES = 256L * 1024 * 1024;
+
+    // Compressibility is applied per block: the first part of every block is random, the rest repeats one byte
+    private static final int BLOCK_SIZE = 64;
+
+    private final byte[][] payloads;
+    private final double averageSize;
+
+    private PayloadPool(byte[][] payloads) {
+        this.payloads = payloads;
+        long totalBytes = 0;
+        for (byte[] payload : payloads) {
+            totalBytes += payload.length;
+        }
+        this.averageSize = (double) totalBytes / payloads.length;
+    }
+
+    /**
+     * Pool always returning the given payload
+     */
+    public static PayloadPool of(byte[] payload) {
+        return new PayloadPool(new byte[][] { payload });
+    }
+
+    public static PayloadPool generate(PayloadSpec spec) {
+        Random random = new Random(spec.seed);
+        List<byte[]> payloads = new ArrayList<>(spec.poolSize);
+        long totalBytes = 0;
+        while (payloads.size() < spec.poolSize && (payloads.isEmpty() || totalBytes < MAX_POOL_BYTES)) {
+            byte[] payload = new byte[nextSize(spec, random)];
+            fill(payload, spec.compressionRatio, random);
+            payloads.add(payload);
+            totalBytes += payload.length;
+        }
+        return new PayloadPool(payloads.toArray(new byte[0][]));
+    }
+
+    public byte[] next() {
+        if (payloads.length == 1) {
+            return payloads[0];
+        }
+        return payloads[ThreadLocalRandom.current().nextInt(payloads.length)];
+    }
+
+    public int size() {
+        return payloads.length;
+    }
+
+    public double averageSize() {
+        return averageSize;
+    }
+
+    static int nextSize(PayloadSpec spec, Random random) {
+        int maxSize = spec.maxSize > 0 ? spec.maxSize : Integer.MAX_VALUE;
+        int minSize = Math.max(1, spec.minSize);
+        switch (spec.sizeDistribution) {
+            case UNIFORM:
+                return minSize + random.nextInt(maxSize - minSize + 1);
+            case LOGNORMAL:
+                // Pick mu so that the mean of the distribution is the configured size
+                double mu = Math.log(spec.size) - spec.sigma * spec.sigma / 2;
+                double size = Math.exp(mu + spec.sigma * random.nextGaussian());
+                return (int) Math.max(minSize, Math.min(maxSize, Math.round(size)));
+            case HISTOGRAM:
+                return spec.histogramSizes[pickWeighted(spec.histogramWeights, random)];
+            case FIXED:
+            default:
+                return spec.size;
+        }
+    }
+
+    private static int pickWeighted(double[] weights, Random random) {
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        double target = random.nextDouble() * total;
+        for (int i = 0; i < weights.length; i++) {
+            target -= weights[i];
+            if (target < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    static void fill(byte[] payload, double compressionRatio, Random random) {
+        int randomBytesPerBlock = (int) Math.ceil(compressionRatio * BLOCK_SIZE);
+        byte filler = (byte) random.nextInt();
+        byte[] randomBytes = new byte[randomBytesPerBlock];
+        for (int offset = 0; offset < payload.length; offset += BLOCK_SIZE) {
+            int blockLength = Math.min(BLOCK_SIZE, payload.length - offset);
+            int randomLength = Math.min(randomBytesPerBlock, blockLength);
+            random.nextBytes(randomBytes);
+            System.arraycopy(randomBytes, 0, payload, offset, randomLength);
+            for (int i = offset + randomLength; i < offset + blockLength; i++) {
+                payload[i] = filler;
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.utils.payload;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Describes the synthetic payloads the producers send. The coordinator resolves the spec, reading the histogram file
+ * if any, and each worker generates its own pool of payloads from it with {@link PayloadPool#generate(PayloadSpec)}.
+ */
+public class PayloadSpec {
+
+    public PayloadSizeDistribution sizeDistribution = PayloadSizeDistribution.FIXED;
+
+    /** Size of FIXED payloads and mean size of LOGNORMAL payloads, the workload messageSize when not set */
+    public int size;
+
+    public int minSize = 1;
+
+    /** Upper bound of UNIFORM and LOGNORMAL sizes, unbounded when 0 */
+    public int maxSize;
+
+    /** Standard deviation of the logarithm of LOGNORMAL sizes */
+    public double sigma = 0.5;
+
+    /** File with one "size weight" pair per line, used by HISTOGRAM */
+    public String histogramFile;
+
+    public int[] histogramSizes;
+
+    public double[] histogramWeights;
+
+    /**
+     * Target ratio between the compressed and the original size, 1 generates incompressible random bytes and values
+     * close to 0 generate highly repetitive payloads
+     */
+    public double compressionRatio = 1.0;
+
+    /** Number of distinct payloads in the pool */
+    public int poolSize = 1024;
+
+    /** Seed of the pool generator, so that all the workers send the same payloads */
+    public long seed = 42;
+
+    /**
+     * Returns a copy of the spec with the size defaulted to <code>messageSize</code> and the histogram file loaded,
+     * ready to be shipped to the workers.
+     */
+    public PayloadSpec resolve(int messageSize) {
+        PayloadSpec resolved = new PayloadSpec();
+        resolved.sizeDistribution = sizeDistribution;
+        resolved.size = size > 0 ? size : messageSize;
+        resolved.minSize = minSize;
+        resolved.maxSize = maxSize;
+        resolved.sigma = sigma;
+        resolved.compressionRatio = compressionRatio;
+        resolved.poolSize = poolSize;
+        resolved.seed = seed;
+        resolved.histogramSizes = histogramSizes;
+        resolved.histogramWeights = histogramWeights;
+        if (sizeDistribution == PayloadSizeDistribution.HISTOGRAM && histogramSizes == null) {
+            resolved.loadHistogram(histogramFile);
+        }
+        resolved.validate();
+        return resolved;
+    }
+
+    private void loadHistogram(String file) {
+        if (file == null) {
+            throw new PayloadException("A histogram file is required by the HISTOGRAM size distribution");
+        }
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(Paths.get(file));
+        } catch (IOException e) {
+            throw new PayloadException(e.getMessage());
+        }
+
+        List<Integer> sizes = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        for (String line : lines) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("[\\s,]+");
+            if (parts.length != 2) {
+                throw new PayloadException("Invalid histogram line, expected \"size weight\": " + line);
+            }
+            sizes.add(Integer.parseInt(parts[0]));
+            weights.add(Double.parseDouble(parts[1]));
+        }
+
+        histogramSizes = new int[sizes.size()];
+        histogramWeights = new double[sizes.size()];
+        for (int i = 0; i < sizes.size(); i++) {
+            histogramSizes[i] = sizes.get(i);
+            histogramWeights[i] = weights.get(i);
+        }
+    }
+
+    private void validate() {
+        if (size <= 0 && sizeDistribution != PayloadSizeDistribution.UNIFORM
+                && sizeDistribution != PayloadSizeDistribution.HISTOGRAM) {
+            throw new PayloadException("Payload size should be > 0");
+        }
+        if (maxSize > 0 && maxSize < minSize) {
+            throw new PayloadException("Payload max size should be >= min size");
+        }
+        if (sizeDistribution == PayloadSizeDistribution.UNIFORM && maxSize <= 0) {
+            throw new PayloadException("The UNIFORM size distribution needs a max size");
+        }
+        if (sizeDistribution == PayloadSizeDistribution.HISTOGRAM && histogramSizes.length == 0) {
+            throw new PayloadException("Payload size histogram is empty");
+        }
+        if (compressionRatio <= 0 || compressionRatio > 1) {
+            throw new PayloadException("Payload compression ratio should be in (0, 1]");
+        }
+        if (poolSize <= 0) {
+            throw new PayloadException("Payload pool size should be > 0");
+        }
+    }
+}
@@ -50,6 +50,10 @@ public class BenchmarkWorker {
 
         @Parameter(names = { "-sp", "--stats-port" }, description = "Stats port to listen on")
         public int statsPort = 8083;
+
+        @Parameter(names = { "-ccp", "--client-creation-parallelism" },
+                description = "Number of producers and consumers to create at the same time")
+        public int clientCreationParallelism = LocalWorker.DEFAULT_CLIENT_CREATION_PARALLELISM;
     }
 
     public static void main(String[] args) throws Exception {
@@ -88,7 +92,7 @@ public class BenchmarkWorker {
         // Start web server
         Javalin app = Javalin.start(arguments.httpPort);
 
-        new WorkerHandler(app, provider.getStatsLogger("benchmark"));
+        new WorkerHandler(app, provider.getStatsLogger("benchmark"), arguments.clientCreationParallelism);
     }
 
     private static final ObjectWriter writer = new ObjectMapper().writerWithDefaultPrettyPrinter();
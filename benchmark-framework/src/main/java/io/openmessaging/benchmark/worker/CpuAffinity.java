@@ -0,0 +1,206 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pins threads to CPUs on Linux by running <code>taskset</code> on the native thread ids found in /proc. Everywhere
+ * else, or when taskset isn't installed, pinning is a no-op and only gets logged.
+ */
+class CpuAffinity {
+
+    private static final Path THREAD_SELF = Paths.get("/proc/thread-self");
+    private static final Path TASKS = Paths.get("/proc/self/task");
+
+    private static volatile Boolean supported;
+
+    static boolean isSupported() {
+        if (supported == null) {
+            supported = System.getProperty("os.name", "").toLowerCase().startsWith("linux")
+                    && Files.exists(THREAD_SELF) && runTaskset("-V");
+            if (!supported) {
+                log.warn("CPU pinning is only supported on Linux with taskset installed, threads won't be pinned");
+            }
+        }
+        return supported;
+    }
+
+    /**
+     * Parses a Linux CPU list such as "0-3,8,10-11"
+     */
+    static List<Integer> parseCpuList(String cpuList) {
+        List<Integer> cpus = new ArrayList<>();
+        for (String range : cpuList.split(",")) {
+            range = range.trim();
+            if (range.isEmpty()) {
+                continue;
+            }
+            int dash = range.indexOf('-');
+            if (dash < 0) {
+                cpus.add(Integer.parseInt(range));
+            } else {
+                int first = Integer.parseInt(range.substring(0, dash).trim());
+                int last = Integer.parseInt(range.substring(dash + 1).trim());
+                for (int cpu = first; cpu <= last; cpu++) {
+                    cpus.add(cpu);
+                }
+            }
+        }
+        if (cpus.isEmpty()) {
+            throw new IllegalArgumentException("Empty CPU list: " + cpuList);
+        }
+        return cpus;
+    }
+
+    /**
+     * Native id of the calling thread, or -1 when it can't be found
+     */
+    static long currentThreadId() {
+        try {
+            // The link points to <pid>/task/<tid>
+            return Long.parseLong(Files.readSymbolicLink(THREAD_SELF).getFileName().toString());
+        } catch (IOException | UnsupportedOperationException | NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Native ids of the threads of the process
+     */
+    static Set<Long> threadIds() {
+        Set<Long> threadIds = new HashSet<>();
+        try (DirectoryStream<Path> tasks = Files.newDirectoryStream(TASKS)) {
+            for (Path task : tasks) {
+                threadIds.add(Long.parseLong(task.getFileName().toString()));
+            }
+        } catch (IOException e) {
+            log.warn("Failed to list the threads of the process", e);
+        }
+        return threadIds;
+    }
+
+    /**
+     * CPU list the thread may run on, or null when it can't be read
+     */
+    static String getAffinity(long threadId) {
+        // Prints "pid <tid>'s current affinity list: 0-7"
+        String output = runTasksetForOutput("-p", "-c", Long.toString(threadId));
+        if (output == null || output.indexOf(": ") < 0) {
+            return null;
+        }
+        return output.substring(output.lastIndexOf(": ") + 2).trim();
+    }
+
+    /**
+     * Pins the given threads, threads they create later inherit the affinity.
+     *
+     * @return the previous CPU list of every thread pinned, to pass to {@link #restore(Map)}
+     */
+    static Map<Long, String> pinThreads(String cpuList, Collection<Long> threadIds) {
+        Map<Long, String> previousAffinities = new HashMap<>();
+        for (long threadId : threadIds) {
+            String previous = getAffinity(threadId);
+            if (previous != null && pin(threadId, cpuList)) {
+                previousAffinities.put(threadId, previous);
+            }
+        }
+        return previousAffinities;
+    }
+
+    /**
+     * Gives threads back their previous CPU lists, ignoring the threads that have exited
+     */
+    static void restore(Map<Long, String> previousAffinities) {
+        previousAffinities.forEach(CpuAffinity::pin);
+    }
+
+    static boolean pin(long threadId, String cpuList) {
+        return runTaskset("-p", "-c", cpuList, Long.toString(threadId));
+    }
+
+    private static String runTasksetForOutput(String... args) {
+        List<String> command = new ArrayList<>();
+        command.add("taskset");
+        for (String arg : args) {
+            command.add(arg);
+        }
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            String output;
+            try (InputStream in = process.getInputStream()) {
+                output = new String(readAll(in), StandardCharsets.UTF_8);
+            }
+            return process.waitFor(10, TimeUnit.SECONDS) && process.exitValue() == 0 ? output : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static boolean runTaskset(String... args) {
+        List<String> command = new ArrayList<>();
+        command.add("taskset");
+        for (String arg : args) {
+            command.add(arg);
+        }
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                    .redirectOutput(new File("/dev/null")).start();
+            return process.waitFor(10, TimeUnit.SECONDS) && process.exitValue() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(CpuAffinity.class);
+}
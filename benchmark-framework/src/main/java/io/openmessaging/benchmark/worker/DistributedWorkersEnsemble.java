@@ -19,11 +19,13 @@ import static java.util.stream.Collectors.toList;
 import com.beust.jcommander.internal.Maps;
 import com.google.common.base.Preconditions;
 import io.openmessaging.benchmark.utils.ListPartition;
+import io.openmessaging.benchmark.worker.commands.ClientCreationStats;
 import io.openmessaging.benchmark.worker.commands.ConsumerAssignment;
 import io.openmessaging.benchmark.worker.commands.CountersStats;
 import io.openmessaging.benchmark.worker.commands.CumulativeLatencies;
 import io.openmessaging.benchmark.worker.commands.PeriodStats;
 import io.openmessaging.benchmark.worker.commands.ProducerWorkAssignment;
+import io.openmessaging.benchmark.worker.commands.RecordingRequest;
 import io.openmessaging.benchmark.worker.commands.TopicSubscription;
 import io.openmessaging.benchmark.worker.commands.TopicsInfo;
 import java.io.File;
@@ -204,6 +206,72 @@ public class DistributedWorkersEnsemble implements Worker {
             });
   }
 
+  @Override
+  public void stopLoad() throws IOException {
+    workers.parallelStream()
+        .forEach(
+            worker -> {
+              try {
+                worker.stopLoad();
+              } catch (IOException e) {
+                throw new RuntimeException(e);
+              }
+            });
+  }
+
+  @Override
+  public void stopProducers() throws IOException {
+    workers.parallelStream()
+        .forEach(
+            worker -> {
+              try {
+                worker.stopProducers();
+              } catch (IOException e) {
+                throw new RuntimeException(e);
+              }
+            });
+  }
+
+  @Override
+  public void startRecording(RecordingRequest recordingRequest) throws IOException {
+    workers.parallelStream()
+        .forEach(
+            worker -> {
+              try {
+                worker.startRecording(recordingRequest);
+              } catch (IOException e) {
+                throw new RuntimeException(e);
+              }
+            });
+  }
+
+  @Override
+  public void stopRecording() throws IOException {
+    workers.parallelStream()
+        .forEach(
+            worker -> {
+              try {
+                worker.stopRecording();
+              } catch (IOException e) {
+                throw new RuntimeException(e);
+              }
+            });
+  }
+
+  @Override
+  public void downloadRecording(String filePrefix) throws IOException {
+    // Each worker client names its file after its host
+    workers.parallelStream()
+        .forEach(
+            worker -> {
+              try {
+                worker.downloadRecording(filePrefix);
+              } catch (IOException e) {
+                throw new RuntimeException(e);
+              }
+            });
+  }
+
   @Override
   public void pauseConsumers() throws IOException {
     consumerWorkers.parallelStream()
@@ -293,6 +361,21 @@ public class DistributedWorkersEnsemble implements Worker {
             });
   }
 
+  @Override
+  public ClientCreationStats getClientCreationStats() {
+    return workers.parallelStream()
+        .map(
+            w -> {
+              try {
+                return w.getClientCreationStats();
+              } catch (IOException e) {
+                log.error("Error while fetching client creation stats", e);
+                return new ClientCreationStats();
+              }
+            })
+        .reduce(new ClientCreationStats(), ClientCreationStats::plus);
+  }
+
   @Override
   public PeriodStats getPeriodStats() {
     List<Worker> failedWorkerNodes = new ArrayList<>();
@@ -72,6 +72,11 @@ public class HTTPWorkerClient implements Worker {
     sendPost(CREATE_CONSUMERS, writer.writeValueAsBytes(consumerAssignment));
   }
 
+  @Override
+  public ClientCreationStats getClientCreationStats() throws IOException {
+    return get(CLIENT_CREATION_STATS, ClientCreationStats.class);
+  }
+
   @Override
   public void probeProducers() throws IOException {
     sendPost(PROBE_PRODUCERS);
@@ -107,7 +112,7 @@ public class HTTPWorkerClient implements Worker {
 
   @Override
   public void resumeProducers() throws IOException {
-    sendPost(RESUME_CONSUMERS);
+    sendPost(RESUME_PRODUCERS);
   }
 
   @Override
@@ -141,6 +146,35 @@ public class HTTPWorkerClient implements Worker {
     sendPost(STOP_ALL);
   }
 
+  @Override
+  public void stopLoad() throws IOException {
+    sendPost(STOP_LOAD);
+  }
+
+  @Override
+  public void stopProducers() throws IOException {
+    sendPost(STOP_PRODUCERS);
+  }
+
+  @Override
+  public void startRecording(RecordingRequest recordingRequest) throws IOException {
+    sendPost(START_RECORDING, writer.writeValueAsBytes(recordingRequest));
+  }
+
+  @Override
+  public void stopRecording() throws IOException {
+    sendPost(STOP_RECORDING);
+  }
+
+  @Override
+  public void downloadRecording(String filePrefix) throws IOException {
+    byte[] recording = getBytes(DOWNLOAD_RECORDING);
+    String hostName = host.replaceAll("^https?://", "").replaceAll("[^\\w.-]", "_");
+    File file = new File(filePrefix + "-" + hostName + ".jfr");
+    Files.write(file.toPath(), recording);
+    log.info("Saved JFR recording of {} to {}", host, file);
+  }
+
   @Override
   public void close() throws Exception {
     httpClient.close();
@@ -195,6 +229,26 @@ public class HTTPWorkerClient implements Worker {
         .join();
   }
 
+  private byte[] getBytes(String path) {
+    return httpClient
+        .prepareGet(host + path)
+        .execute()
+        .toCompletableFuture()
+        .thenApply(
+            response -> {
+              if (response.getStatusCode() != HTTP_OK) {
+                log.error(
+                    "Failed to do HTTP get request to {}{} -- code: {}",
+                    host,
+                    path,
+                    response.getStatusCode());
+              }
+              Preconditions.checkArgument(response.getStatusCode() == HTTP_OK);
+              return response.getResponseBodyAsBytes();
+            })
+        .join();
+  }
+
   private <T> T post(String path, byte[] body, TypeReference<T> type) {
     return httpClient
         .preparePost(host + path)
@@ -0,0 +1,63 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounds the messages and bytes a producer has in flight in closed-loop mode. A limit of 0 means unbounded.
+ */
+class InFlightLimiter {
+
+    private final Semaphore messages;
+    private final Semaphore bytes;
+    private final int maxBytes;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    InFlightLimiter(int maxMessages, int maxBytes) {
+        this.messages = maxMessages > 0 ? new Semaphore(maxMessages) : null;
+        this.bytes = maxBytes > 0 ? new Semaphore(maxBytes) : null;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Blocks until the message fits in the window and returns the number of messages in flight including it
+     */
+    int acquire(int size) throws InterruptedException {
+        if (messages != null) {
+            messages.acquire();
+        }
+        if (bytes != null) {
+            // A message larger than the whole window is sent alone
+            bytes.acquire(Math.min(size, maxBytes));
+        }
+        return inFlight.incrementAndGet();
+    }
+
+    void release(int size) {
+        inFlight.decrementAndGet();
+        if (bytes != null) {
+            bytes.release(Math.min(size, maxBytes));
+        }
+        if (messages != null) {
+            messages.release();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import io.openmessaging.benchmark.worker.commands.PeriodStats;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * Samples the GC pauses, allocations, CPU time and threads of the worker JVM, so that client-side pauses can be
+ * correlated with latency spikes. GC pauses are collected from GC notifications, everything else is computed as a
+ * delta between two calls to {@link #collect(PeriodStats)}.
+ */
+class JvmStatsCollector {
+
+    private final LongAdder gcCount = new LongAdder();
+    private final LongAdder gcPauseMillis = new LongAdder();
+    private final LongAccumulator maxGcPauseMillis = new LongAccumulator(Long::max, 0);
+    private final LongAccumulator maxHeapAfterGcBytes = new LongAccumulator(Long::max, 0);
+
+    private final Set<String> heapPools = new HashSet<>();
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final java.lang.management.OperatingSystemMXBean osBean = ManagementFactory.getOperatingSystemMXBean();
+    private final int availableProcessors = Runtime.getRuntime().availableProcessors();
+
+    private long lastSampleNanos;
+    private long lastCpuTimeNanos;
+    private long lastAllocatedBytes;
+
+    JvmStatsCollector() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                heapPools.add(pool.getName());
+            }
+        }
+        for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            // ZGC and Shenandoah also expose their concurrent cycles, which are not pauses
+            if (gcBean instanceof NotificationEmitter && !gcBean.getName().endsWith("Cycles")) {
+                ((NotificationEmitter) gcBean).addNotificationListener((notification, handback) -> {
+                    if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                        recordGc(GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData()));
+                    }
+                }, null, null);
+            }
+        }
+        lastSampleNanos = System.nanoTime();
+        lastCpuTimeNanos = processCpuTimeNanos();
+        lastAllocatedBytes = allocatedBytes();
+    }
+
+    private void recordGc(GarbageCollectionNotificationInfo info) {
+        long duration = info.getGcInfo().getDuration();
+        gcCount.increment();
+        gcPauseMillis.add(duration);
+        maxGcPauseMillis.accumulate(duration);
+
+        long heapAfterGc = 0;
+        for (Map.Entry<String, MemoryUsage> usage : info.getGcInfo().getMemoryUsageAfterGc().entrySet()) {
+            if (heapPools.contains(usage.getKey())) {
+                heapAfterGc += usage.getValue().getUsed();
+            }
+        }
+        maxHeapAfterGcBytes.accumulate(heapAfterGc);
+    }
+
+    synchronized void collect(PeriodStats stats) {
+        long now = System.nanoTime();
+        long cpuTimeNanos = processCpuTimeNanos();
+        long allocatedBytes = allocatedBytes();
+
+        stats.gcCount = gcCount.sumThenReset();
+        stats.gcPauseMillis = gcPauseMillis.sumThenReset();
+        stats.maxGcPauseMillis = maxGcPauseMillis.getThenReset();
+        stats.maxHeapAfterGcBytes = maxHeapAfterGcBytes.getThenReset();
+        // Threads that died since the last sample take their allocations with them
+        stats.allocatedBytes = Math.max(0, allocatedBytes - lastAllocatedBytes);
+        stats.processCpuTimeMillis = TimeUnit.NANOSECONDS.toMillis(Math.max(0, cpuTimeNanos - lastCpuTimeNanos));
+        stats.availableProcessors = availableProcessors;
+        long elapsedNanos = now - lastSampleNanos;
+        stats.maxProcessCpuPercent = elapsedNanos > 0
+                ? 100.0 * (cpuTimeNanos - lastCpuTimeNanos) / elapsedNanos / availableProcessors
+                : 0;
+        stats.maxThreadCount = threadBean.getPeakThreadCount();
+        threadBean.resetPeakThreadCount();
+
+        lastSampleNanos = now;
+        lastCpuTimeNanos = cpuTimeNanos;
+        lastAllocatedBytes = allocatedBytes;
+    }
+
+    private long processCpuTimeNanos() {
+        if (osBean instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) osBean).getProcessCpuTime();
+        }
+        return 0;
+    }
+
+    private long allocatedBytes() {
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunThreadBean = (com.sun.management.ThreadMXBean) threadBean;
+            if (sunThreadBean.isThreadAllocatedMemorySupported() && sunThreadBean.isThreadAllocatedMemoryEnabled()) {
+                long total = 0;
+                for (long allocated : sunThreadBean.getThreadAllocatedBytes(threadBean.getAllThreadIds())) {
+                    if (allocated > 0) {
+                        total += allocated;
+                    }
+                }
+                return total;
+            }
+        }
+        return 0;
+    }
+}
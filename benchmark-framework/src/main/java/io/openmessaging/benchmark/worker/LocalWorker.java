@@ -31,22 +31,34 @@ import io.openmessaging.benchmark.driver.*;
 import io.openmessaging.benchmark.utils.RandomGenerator;
 import io.openmessaging.benchmark.utils.Timer;
 import io.openmessaging.benchmark.utils.distributor.KeyDistributor;
+import io.openmessaging.benchmark.utils.payload.PayloadPool;
+import io.openmessaging.benchmark.worker.commands.ClientCreationStats;
 import io.openmessaging.benchmark.worker.commands.ConsumerAssignment;
 import io.openmessaging.benchmark.worker.commands.CountersStats;
 import io.openmessaging.benchmark.worker.commands.CumulativeLatencies;
+import io.openmessaging.benchmark.worker.commands.LoadMode;
 import io.openmessaging.benchmark.worker.commands.PeriodStats;
 import io.openmessaging.benchmark.worker.commands.ProducerWorkAssignment;
+import io.openmessaging.benchmark.worker.commands.RecordingRequest;
 import io.openmessaging.benchmark.worker.commands.TopicsInfo;
+import io.openmessaging.benchmark.worker.jfr.WorkerEvents;
+import io.openmessaging.benchmark.worker.jfr.WorkerRecorder;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.*;
+import java.util.function.Supplier;
 
+import org.HdrHistogram.Recorder;
 import org.apache.bookkeeper.stats.NullStatsLogger;
 import org.apache.bookkeeper.stats.StatsLogger;
 import org.apache.commons.lang.StringUtils;
@@ -54,22 +66,51 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class LocalWorker implements Worker, ConsumerCallback {
+    public static final int DEFAULT_CLIENT_CREATION_PARALLELISM = 16;
+
     private final RateLimiter rateLimiter = RateLimiter.create(1.0);
-    private final ExecutorService executor = Executors.newCachedThreadPool(new DefaultThreadFactory("local-worker"));
+    // Native ids of the threads of the worker's own pools, never pinned with the driver threads
+    private final Set<Long> workerThreadIds = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newCachedThreadPool(
+            workerThreadFactory(new DefaultThreadFactory("local-worker")));
+    // Drivers create their clients in the calling thread, bounded so that the handshakes don't overwhelm the service
+    private final ExecutorService clientCreationExecutor;
+    private final Recorder producerCreationRecorder = new Recorder(ClientCreationStats.HIGHEST_TRACKABLE_VALUE, 5);
+    private final Recorder consumerCreationRecorder = new Recorder(ClientCreationStats.HIGHEST_TRACKABLE_VALUE, 5);
     private final WorkerStats stats;
+    private final ReceivedMessageRecorder receivedMessageRecorder;
+    private final WorkerRecorder recorder = new WorkerRecorder();
     private BenchmarkDriver benchmarkDriver = null;
     private List<BenchmarkProducer> producers = new ArrayList<>();
     private List<BenchmarkConsumer> consumers = new ArrayList<>();
-    private boolean testCompleted = false;
-    private boolean consumersArePaused = false;
-    private boolean producersArePaused = false;
+    private volatile boolean testCompleted = false;
+    // Bumped by every startLoad so that producer threads of a previous load on the same driver exit
+    private volatile int loadGeneration = 0;
+    private volatile boolean producersArePaused = false;
+    private final Object producersPauseLock = new Object();
+    // Threads of the process before the driver was initialized, the others belong to the driver or the worker pools
+    private Set<Long> threadsBeforeDriver = Collections.emptySet();
+    // Previous CPU lists of the driver threads pinned for the current load, and of the threads they created since
+    private Map<Long, String> driverThreadAffinities = Collections.emptyMap();
+    private String driverThreadDefaultAffinity;
 
     public LocalWorker() {
         this(NullStatsLogger.INSTANCE);
     }
 
     public LocalWorker(StatsLogger statsLogger) {
+        this(statsLogger, DEFAULT_CLIENT_CREATION_PARALLELISM);
+    }
+
+    /**
+     * @param clientCreationParallelism number of producers and consumers created at the same time
+     */
+    public LocalWorker(StatsLogger statsLogger, int clientCreationParallelism) {
+        Preconditions.checkArgument(clientCreationParallelism > 0, "Client creation parallelism has to be positive");
+        clientCreationExecutor = Executors.newFixedThreadPool(clientCreationParallelism,
+                workerThreadFactory(new DefaultThreadFactory("local-worker-client-creation")));
         stats = new WorkerStats(statsLogger);
+        receivedMessageRecorder = new ReceivedMessageRecorder(stats);
     }
 
     @Override
@@ -78,6 +119,7 @@ public class LocalWorker implements Worker, ConsumerCallback {
         testCompleted = false;
 
         DriverConfiguration driverConfiguration = mapper.readValue(driverConfigFile, DriverConfiguration.class);
+        threadsBeforeDriver = CpuAffinity.isSupported() ? CpuAffinity.threadIds() : Collections.emptySet();
 
         log.info("Driver: {}", writer.writeValueAsString(driverConfiguration));
 
@@ -127,43 +169,133 @@ public class LocalWorker implements Worker, ConsumerCallback {
     @Override
     public void createProducers(List<String> topics) {
         Timer timer = new Timer();
+        WorkerEvents.ClientCreation event = new WorkerEvents.ClientCreation();
+        event.clientType = "producer";
+        event.begin();
 
         List<CompletableFuture<BenchmarkProducer>> futures = topics.stream()
-                .map(topic -> benchmarkDriver.createProducer(topic)).collect(toList());
+                .map(topic -> createClient(() -> benchmarkDriver.createProducer(topic), producerCreationRecorder))
+                .collect(toList());
 
-        futures.forEach(f -> producers.add(f.join()));
+        joinAll(futures, producers);
+        event.count = futures.size();
+        event.commit();
         log.info("Created {} producers in {} ms", producers.size(), timer.elapsedMillis());
     }
 
     @Override
     public void createConsumers(ConsumerAssignment consumerAssignment) {
         Timer timer = new Timer();
+        WorkerEvents.ClientCreation event = new WorkerEvents.ClientCreation();
+        event.clientType = "consumer";
+        event.begin();
 
         List<CompletableFuture<BenchmarkConsumer>> futures = consumerAssignment.topicsSubscriptions.stream()
-                .map(ts -> benchmarkDriver.createConsumer(ts.topic, ts.subscription, Optional.of(ts.partition), this))
+                .map(ts -> createClient(() -> benchmarkDriver.createConsumer(ts.topic, ts.subscription,
+                        Optional.of(ts.partition), ts.assignedPartitions, this), consumerCreationRecorder))
                 .collect(toList());
 
-        futures.forEach(f -> consumers.add(f.join()));
+        joinAll(futures, consumers);
+        event.count = futures.size();
+        event.commit();
         log.info("Created {} consumers in {} ms", consumers.size(), timer.elapsedMillis());
     }
 
+    private <T> CompletableFuture<T> createClient(Supplier<CompletableFuture<T>> creation, Recorder recorder) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            T client = creation.get().join();
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            recorder.recordValue(Math.min(micros, ClientCreationStats.HIGHEST_TRACKABLE_VALUE));
+            return client;
+        }, clientCreationExecutor);
+    }
+
+    /**
+     * Waits for all the clients, keeping the created ones to be closed with the others when some fail
+     */
+    private static <T> void joinAll(List<CompletableFuture<T>> futures, List<T> clients) {
+        RuntimeException failure = null;
+        for (CompletableFuture<T> future : futures) {
+            try {
+                clients.add(future.join());
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public ClientCreationStats getClientCreationStats() {
+        ClientCreationStats creationStats = new ClientCreationStats();
+        creationStats.producerCreationLatency = producerCreationRecorder.getIntervalHistogram();
+        creationStats.consumerCreationLatency = consumerCreationRecorder.getIntervalHistogram();
+        return creationStats;
+    }
+
     @Override
     public void startLoad(ProducerWorkAssignment producerWorkAssignment) {
-        int processors = Runtime.getRuntime().availableProcessors();
+        int producerThreads = producerWorkAssignment.producerThreads > 0
+                ? producerWorkAssignment.producerThreads
+                : Runtime.getRuntime().availableProcessors();
 
+        WorkerEvents.phase("start-load");
+        loadGeneration++;
+        testCompleted = false;
+        WorkerEvents.rateAdjustment(producerWorkAssignment.publishRate);
         rateLimiter.setRate(producerWorkAssignment.publishRate);
 
+        PayloadPool payloadPool = producerWorkAssignment.payloadSpec != null
+                ? PayloadPool.generate(producerWorkAssignment.payloadSpec)
+                : PayloadPool.of(producerWorkAssignment.payloadData);
+        log.info("Using {} payloads with an average size of {} bytes", payloadPool.size(),
+                Math.round(payloadPool.averageSize()));
+
         Map<Integer, List<BenchmarkProducer>> processorAssignemnt = new TreeMap<>();
 
         int processorIdx = 0;
         for (BenchmarkProducer p : producers) {
             processorAssignemnt.computeIfAbsent(processorIdx, x -> new ArrayList<BenchmarkProducer>()).add(p);
 
-            processorIdx = (processorIdx + 1) % processors;
+            processorIdx = (processorIdx + 1) % producerThreads;
         }
 
-        processorAssignemnt.values().forEach(producers -> submitProducersToExecutor(producers,
-                KeyDistributor.build(producerWorkAssignment.keyDistributorType), producerWorkAssignment.payloadData));
+        boolean pinThreads = (producerWorkAssignment.driverCpus != null || producerWorkAssignment.producerCpus != null)
+                && CpuAffinity.isSupported();
+        if (pinThreads && producerWorkAssignment.driverCpus != null) {
+            // Driver threads already exist, and the ones created later inherit the affinity of their creator
+            restoreDriverThreads();
+            driverThreadDefaultAffinity = CpuAffinity.getAffinity(CpuAffinity.currentThreadId());
+            driverThreadAffinities = CpuAffinity.pinThreads(producerWorkAssignment.driverCpus, driverThreadIds());
+            log.info("Pinned {} driver threads to CPUs {}", driverThreadAffinities.size(),
+                    producerWorkAssignment.driverCpus);
+        }
+        List<Integer> producerCpus = pinThreads && producerWorkAssignment.producerCpus != null
+                ? CpuAffinity.parseCpuList(producerWorkAssignment.producerCpus)
+                : Collections.emptyList();
+        log.info("Running {} producers on {} threads", producers.size(), processorAssignemnt.size());
+
+        // Key distributors keep their state per thread, one instance serves all the producer threads
+        KeyDistributor keyDistributor = KeyDistributor.build(producerWorkAssignment.keyDistributorType,
+                producerWorkAssignment.keyDistributorSpec);
+        boolean closedLoop = producerWorkAssignment.loadMode == LoadMode.CLOSED_LOOP;
+        if (closedLoop) {
+            log.info("Closed loop with at most {} messages and {} bytes in flight per producer (0 = no limit)",
+                    producerWorkAssignment.maxInFlightMessages, producerWorkAssignment.maxInFlightBytes);
+        }
+        processorAssignemnt.forEach((shard, producers) -> {
+            List<InFlightLimiter> inFlightLimiters = closedLoop
+                    ? producers.stream().map(p -> new InFlightLimiter(producerWorkAssignment.maxInFlightMessages,
+                            producerWorkAssignment.maxInFlightBytes)).collect(toList())
+                    : null;
+            submitProducersToExecutor(shard, producers, inFlightLimiters, keyDistributor, payloadPool,
+                    producerCpus.isEmpty() ? null : producerCpus.get(shard % producerCpus.size()));
+        });
     }
 
     @Override
@@ -173,32 +305,93 @@ public class LocalWorker implements Worker, ConsumerCallback {
                         producer.sendAsync(Optional.of("key"), new byte[10]).thenRun(stats::recordMessageSent));
     }
 
-    private void submitProducersToExecutor(List<BenchmarkProducer> producers, KeyDistributor keyDistributor,
-            byte[] payloadData) {
-        MessageProducer messageProducer = new MessageProducer(rateLimiter, stats);
+    private void submitProducersToExecutor(int shard, List<BenchmarkProducer> producers,
+            List<InFlightLimiter> inFlightLimiters, KeyDistributor keyDistributor, PayloadPool payloadPool,
+            Integer cpu) {
+        MessageProducer messageProducer = new MessageProducer(rateLimiter, stats, payloadPool.averageSize());
+        int generation = loadGeneration;
         executor.submit(() -> {
+            // The pool thread outlives the load, it gets its previous CPU list back once the load stops
+            Map<Long, String> previousAffinity = Collections.emptyMap();
+            if (cpu != null) {
+                long threadId = CpuAffinity.currentThreadId();
+                previousAffinity = CpuAffinity.pinThreads(cpu.toString(), Collections.singleton(threadId));
+                log.info("Producer thread {} ({} producers, tid {}) {} CPU {}", shard, producers.size(),
+                        threadId, previousAffinity.isEmpty() ? "failed to pin to" : "pinned to", cpu);
+            }
             try {
-                while (!testCompleted) {
-                    while (producersArePaused) {
-                        try {
-                            Thread.sleep(1000);
-                        } catch (InterruptedException e) {
-                            e.printStackTrace();
-                        }
+                while (!testCompleted && generation == loadGeneration) {
+                    if (producersArePaused) {
+                        waitWhileProducersArePaused();
                     }
 
-                    producers.forEach(producer -> {
-                        messageProducer.sendMessage(producer, keyDistributor.next(), payloadData);
-                    });
+                    if (inFlightLimiters == null) {
+                        producers.forEach(producer -> {
+                            messageProducer.sendMessage(producer, keyDistributor.nextBytes(), payloadPool.next());
+                        });
+                    } else {
+                        for (int i = 0; i < producers.size(); i++) {
+                            messageProducer.sendMessage(producers.get(i), keyDistributor.nextBytes(),
+                                    payloadPool.next(), inFlightLimiters.get(i));
+                        }
+                    }
                 }
             } catch (Throwable t) {
                 log.error("Got error", t);
+            } finally {
+                CpuAffinity.restore(previousAffinity);
             }
         });
     }
 
+    private ThreadFactory workerThreadFactory(ThreadFactory threadFactory) {
+        return runnable -> threadFactory.newThread(() -> {
+            workerThreadIds.add(CpuAffinity.currentThreadId());
+            runnable.run();
+        });
+    }
+
+    /**
+     * Threads created since the driver was initialized, outside of the worker pools
+     */
+    private Set<Long> driverThreadIds() {
+        Set<Long> threadIds = CpuAffinity.threadIds();
+        threadIds.removeAll(threadsBeforeDriver);
+        threadIds.removeAll(workerThreadIds);
+        return threadIds;
+    }
+
+    /**
+     * Gives the pinned driver threads their previous CPU lists back, and the threads they created meanwhile, which
+     * inherited the pinning, the CPU list of the unpinned worker threads
+     */
+    private void restoreDriverThreads() {
+        if (driverThreadAffinities.isEmpty()) {
+            return;
+        }
+        Map<Long, String> affinities = new HashMap<>();
+        if (driverThreadDefaultAffinity != null) {
+            for (long threadId : driverThreadIds()) {
+                affinities.put(threadId, driverThreadDefaultAffinity);
+            }
+        }
+        affinities.putAll(driverThreadAffinities);
+        CpuAffinity.restore(affinities);
+        log.info("Restored the CPU affinity of {} driver threads", affinities.size());
+        driverThreadAffinities = Collections.emptyMap();
+    }
+
+    private void waitWhileProducersArePaused() throws InterruptedException {
+        synchronized (producersPauseLock) {
+            while (producersArePaused && !testCompleted) {
+                producersPauseLock.wait();
+            }
+        }
+    }
+
     @Override
     public void adjustPublishRate(double publishRate) {
+        WorkerEvents.rateAdjustment(publishRate);
         if (publishRate < 1.0) {
             rateLimiter.setRate(1.0);
             return;
@@ -208,17 +401,40 @@ public class LocalWorker implements Worker, ConsumerCallback {
 
     @Override
     public PeriodStats getPeriodStats() {
-        return stats.toPeriodStats();
+        WorkerEvents.StatsScrape event = beginStatsScrape("period");
+        receivedMessageRecorder.drain();
+        PeriodStats periodStats = stats.toPeriodStats();
+        event.messagesSent = periodStats.messagesSent;
+        event.messagesReceived = periodStats.messagesReceived;
+        event.commit();
+        return periodStats;
     }
 
     @Override
     public CumulativeLatencies getCumulativeLatencies() {
-        return stats.toCumulativeLatencies();
+        WorkerEvents.StatsScrape event = beginStatsScrape("cumulative");
+        receivedMessageRecorder.drain();
+        CumulativeLatencies latencies = stats.toCumulativeLatencies();
+        event.commit();
+        return latencies;
     }
 
     @Override
     public CountersStats getCountersStats() throws IOException {
-        return stats.toCountersStats();
+        WorkerEvents.StatsScrape event = beginStatsScrape("counters");
+        receivedMessageRecorder.drain();
+        CountersStats countersStats = stats.toCountersStats();
+        event.messagesSent = countersStats.messagesSent;
+        event.messagesReceived = countersStats.messagesReceived;
+        event.commit();
+        return countersStats;
+    }
+
+    private static WorkerEvents.StatsScrape beginStatsScrape(String kind) {
+        WorkerEvents.StatsScrape event = new WorkerEvents.StatsScrape();
+        event.kind = kind;
+        event.begin();
+        return event;
     }
 
     @Override
@@ -226,42 +442,79 @@ public class LocalWorker implements Worker, ConsumerCallback {
         internalMessageReceived(data.length, publishTimestamp);
     }
 
-    public void internalMessageReceived(int size, long publishTimestampNanos) {
+    @Override
+    public void messagesReceived(int[] payloadSizes, long[] publishTimestamps, int count) {
         long currentTimeNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
-        long endToEndLatencyMicros = TimeUnit.NANOSECONDS.toMicros(currentTimeNanos - publishTimestampNanos);
-        stats.recordMessageReceived(size, endToEndLatencyMicros);
-
-        while (consumersArePaused) {
-            try {
-                Thread.sleep(1000);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
+        for (int i = 0; i < count; i++) {
+            recordMessageReceived(payloadSizes[i], publishTimestamps[i], currentTimeNanos);
         }
     }
 
+    public void internalMessageReceived(int size, long publishTimestampNanos) {
+        recordMessageReceived(size, publishTimestampNanos, TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()));
+    }
+
+    private void recordMessageReceived(int size, long publishTimestampNanos, long currentTimeNanos) {
+        long endToEndLatencyMicros = TimeUnit.NANOSECONDS.toMicros(currentTimeNanos - publishTimestampNanos);
+        // Recorded by the stats thread, keeps the histograms and counters off the driver's receive path
+        receivedMessageRecorder.record(size, endToEndLatencyMicros);
+    }
+
     @Override
     public void pauseConsumers() throws IOException {
-        consumersArePaused = true;
         log.info("Pausing consumers");
+        WorkerEvents.phase("pause-consumers");
+        for (BenchmarkConsumer consumer : consumers) {
+            try {
+                consumer.pause();
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        }
     }
 
     @Override
     public void resumeConsumers() throws IOException {
-        consumersArePaused = false;
         log.info("Resuming consumers");
+        WorkerEvents.phase("resume-consumers");
+        for (BenchmarkConsumer consumer : consumers) {
+            try {
+                consumer.resume();
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        }
     }
 
     @Override
     public void pauseProducers() throws IOException {
         producersArePaused = true;
         log.info("Pausing producers");
+        WorkerEvents.phase("pause-producers");
+        for (BenchmarkProducer producer : producers) {
+            try {
+                producer.pause();
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        }
     }
 
     @Override
     public void resumeProducers() throws IOException {
-        producersArePaused = false;
         log.info("Resuming producers");
+        WorkerEvents.phase("resume-producers");
+        for (BenchmarkProducer producer : producers) {
+            try {
+                producer.resume();
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        }
+        synchronized (producersPauseLock) {
+            producersArePaused = false;
+            producersPauseLock.notifyAll();
+        }
     }
 
     @Override
@@ -271,15 +524,51 @@ public class LocalWorker implements Worker, ConsumerCallback {
 
     @Override
     public void resetStats() throws IOException {
+        WorkerEvents.phase("reset-stats");
+        receivedMessageRecorder.drain();
         stats.reset();
     }
 
     @Override
     public void stopAll() throws IOException {
-        testCompleted = true;
-        consumersArePaused = false;
-        producersArePaused = false;
+        WorkerEvents.phase("stop-all");
+        closeClients();
+
+        try {
+            if (benchmarkDriver != null) {
+                benchmarkDriver.close();
+                benchmarkDriver = null;
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void stopLoad() throws IOException {
+        WorkerEvents.phase("stop-load");
+        closeClients();
+    }
+
+    @Override
+    public void stopProducers() throws IOException {
+        WorkerEvents.phase("stop-producers");
+        stopProducerThreads();
+    }
+
+    private void stopProducerThreads() {
+        synchronized (producersPauseLock) {
+            testCompleted = true;
+            producersArePaused = false;
+            producersPauseLock.notifyAll();
+        }
+        restoreDriverThreads();
+        receivedMessageRecorder.drain();
         stats.reset();
+    }
+
+    private void closeClients() {
+        stopProducerThreads();
 
         try {
             Thread.sleep(100);
@@ -292,19 +581,41 @@ public class LocalWorker implements Worker, ConsumerCallback {
                 consumer.close();
             }
             consumers.clear();
-
-            if (benchmarkDriver != null) {
-                benchmarkDriver.close();
-                benchmarkDriver = null;
-            }
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
+    @Override
+    public void startRecording(RecordingRequest recordingRequest) throws IOException {
+        recorder.start(recordingRequest);
+    }
+
+    @Override
+    public void stopRecording() {
+        recorder.stop();
+    }
+
+    @Override
+    public void downloadRecording(String filePrefix) throws IOException {
+        File file = new File(filePrefix + ".jfr");
+        Files.write(file.toPath(), getRecording());
+        log.info("Saved JFR recording to {}", file);
+    }
+
+    /**
+     * Returns the JFR recording covering its last max age, the recording keeps running
+     */
+    public byte[] getRecording() throws IOException {
+        return recorder.dump();
+    }
+
     @Override
     public void close() throws Exception {
+        recorder.close();
         executor.shutdown();
+        clientCreationExecutor.shutdown();
+        receivedMessageRecorder.close();
     }
 
     private static final ObjectWriter writer = new ObjectMapper().writerWithDefaultPrettyPrinter();
@@ -15,7 +15,8 @@ package io.openmessaging.benchmark.worker;
 
 import com.google.common.util.concurrent.RateLimiter;
 import io.openmessaging.benchmark.driver.BenchmarkProducer;
-import java.util.Optional;
+import io.openmessaging.benchmark.worker.jfr.WorkerEvents;
+import java.util.concurrent.CompletableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,17 +25,27 @@ public class MessageProducer {
   private static final Logger log = LoggerFactory.getLogger(MessageProducer.class);
   private final WorkerStats stats;
   private RateLimiter rateLimiter;
+  private final double averagePayloadSize;
+  // Only used by the producer thread owning this instance
+  private long lastSendTime = 0;
+  private long sends = 0;
 
-  MessageProducer(RateLimiter rateLimiter, WorkerStats stats) {
+  MessageProducer(RateLimiter rateLimiter, WorkerStats stats, double averagePayloadSize) {
     this.rateLimiter = rateLimiter;
     this.stats = stats;
+    this.averagePayloadSize = averagePayloadSize;
   }
 
-  public void sendMessage(BenchmarkProducer producer, String key, byte[] payload) {
-    rateLimiter.acquire();
+  public void sendMessage(BenchmarkProducer producer, byte[] key, byte[] payload) {
+    // The rate limiter only lets a send through without waiting when the thread is late on the schedule
+    final boolean behindSchedule = rateLimiter.acquire() == 0;
     final long sendTime = System.nanoTime();
-    producer
-        .sendAsync(Optional.ofNullable(key), payload)
+    if (lastSendTime > 0) {
+      stats.recordProducerPacing(behindSchedule, behindSchedule ? sendTime - lastSendTime : 0);
+    }
+    lastSendTime = sendTime;
+    final WorkerEvents.MessageSend event = WorkerEvents.beginSampledSend(++sends, payload.length, behindSchedule);
+    traced(producer.sendAsync(key, payload), event)
         .thenAccept(
             messageSent -> {
               success(messageSent, payload.length, sendTime);
@@ -42,9 +53,49 @@ public class MessageProducer {
         .exceptionally(this::failure);
   }
 
+  /**
+   * Closed-loop send: waits for room in the producer's in-flight window before pacing the message with the rate
+   * limiter, and frees the room once the send completes.
+   */
+  public void sendMessage(BenchmarkProducer producer, byte[] key, byte[] payload, InFlightLimiter inFlightLimiter)
+      throws InterruptedException {
+    final long waitStartTime = System.nanoTime();
+    final int inFlight = inFlightLimiter.acquire(payload.length);
+    final long acquiredTime = System.nanoTime();
+    final boolean behindSchedule = rateLimiter.acquire() == 0;
+    final long sendTime = System.nanoTime();
+    stats.recordClosedLoopSend(acquiredTime - waitStartTime, sendTime - acquiredTime, inFlight);
+    final WorkerEvents.MessageSend event = WorkerEvents.beginSampledSend(++sends, payload.length, behindSchedule);
+    CompletableFuture<Integer> future;
+    try {
+      future = traced(producer.sendAsync(key, payload), event);
+    } catch (RuntimeException e) {
+      inFlightLimiter.release(payload.length);
+      failure(e);
+      return;
+    }
+    future
+        .whenComplete((messageSent, throwable) -> inFlightLimiter.release(payload.length))
+        .thenAccept(
+            messageSent -> {
+              success(messageSent, payload.length, sendTime);
+            })
+        .exceptionally(this::failure);
+  }
+
+  private static CompletableFuture<Integer> traced(CompletableFuture<Integer> future,
+      WorkerEvents.MessageSend event) {
+    if (event == null) {
+      return future;
+    }
+    return future.whenComplete((messageSent, throwable) -> WorkerEvents.endSend(event, messageSent, throwable));
+  }
+
   private void success(long messageSent, long payloadLength, long sendTime) {
     long nowNs = System.nanoTime();
-    stats.recordProducerSuccess(messageSent, payloadLength, sendTime, nowNs);
+    // Batching drivers complete one send with the count of a whole batch of messages of unknown sizes
+    long bytesSent = messageSent == 1 ? payloadLength : Math.round(messageSent * averagePayloadSize);
+    stats.recordProducerSuccess(messageSent, bytesSent, sendTime, nowNs);
   }
 
   private Void failure(Throwable t) {
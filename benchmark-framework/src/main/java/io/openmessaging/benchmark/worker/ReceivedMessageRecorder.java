@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hands the messages received on the driver threads over to a single stats thread.
+ *
+ * <p>Every driver thread publishes (size, end-to-end latency) records into its own single-producer ring buffer, so
+ * the receive path only does two array stores and an ordered write. The stats thread drains the buffers every
+ * millisecond and records the values into {@link WorkerStats}. When a buffer is full the record goes to the stats
+ * inline, nothing is dropped, and the overflow is counted as a sign that the worker is saturated.
+ */
+class ReceivedMessageRecorder implements AutoCloseable {
+
+    private static final int BUFFER_CAPACITY = 1 << 14;
+    private static final long DRAIN_INTERVAL_MICROS = 1000;
+
+    private final WorkerStats stats;
+    private final List<RingBuffer> buffers = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<RingBuffer> localBuffer = ThreadLocal.withInitial(() -> {
+        RingBuffer buffer = new RingBuffer(Thread.currentThread());
+        buffers.add(buffer);
+        return buffer;
+    });
+    private final ScheduledExecutorService drainExecutor =
+            Executors.newSingleThreadScheduledExecutor(new DefaultThreadFactory("stats-recorder"));
+
+    ReceivedMessageRecorder(WorkerStats stats) {
+        this.stats = stats;
+        drainExecutor.scheduleWithFixedDelay(this::drainSafely, DRAIN_INTERVAL_MICROS, DRAIN_INTERVAL_MICROS,
+                TimeUnit.MICROSECONDS);
+    }
+
+    void record(int size, long endToEndLatencyMicros) {
+        if (!localBuffer.get().offer(size, endToEndLatencyMicros)) {
+            stats.recordReceiveQueueOverflow();
+            stats.recordMessageReceived(size, endToEndLatencyMicros);
+        }
+    }
+
+    /**
+     * Records everything published so far. Called by the stats thread, and before reading or resetting the stats so
+     * that they include every message received up to that point.
+     */
+    synchronized void drain() {
+        for (RingBuffer buffer : buffers) {
+            buffer.drainTo(stats);
+            if (!buffer.owner.isAlive() && buffer.isEmpty()) {
+                buffers.remove(buffer);
+            }
+        }
+    }
+
+    private void drainSafely() {
+        try {
+            drain();
+        } catch (Throwable t) {
+            log.error("Failed to record received messages", t);
+        }
+    }
+
+    @Override
+    public void close() {
+        drainExecutor.shutdownNow();
+        drain();
+    }
+
+    private static final class RingBuffer {
+        private static final int MASK = BUFFER_CAPACITY - 1;
+
+        private final Thread owner;
+        private final int[] sizes = new int[BUFFER_CAPACITY];
+        private final long[] latencies = new long[BUFFER_CAPACITY];
+        // Next position to read, only written by the draining thread
+        private final AtomicLong head = new AtomicLong();
+        // Next position to write, only written by the owner thread
+        private final AtomicLong tail = new AtomicLong();
+
+        RingBuffer(Thread owner) {
+            this.owner = owner;
+        }
+
+        boolean offer(int size, long latency) {
+            long position = tail.get();
+            if (position - head.get() == BUFFER_CAPACITY) {
+                return false;
+            }
+            int index = (int) position & MASK;
+            sizes[index] = size;
+            latencies[index] = latency;
+            tail.lazySet(position + 1);
+            return true;
+        }
+
+        void drainTo(WorkerStats stats) {
+            long position = head.get();
+            long end = tail.get();
+            stats.recordReceiveQueueDepth(end - position);
+            for (; position < end; position++) {
+                int index = (int) position & MASK;
+                stats.recordMessageReceived(sizes[index], latencies[index]);
+            }
+            head.lazySet(position);
+        }
+
+        boolean isEmpty() {
+            return head.get() == tail.get();
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(ReceivedMessageRecorder.class);
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.openmessaging.benchmark.worker;
+
+import io.openmessaging.benchmark.worker.commands.PeriodStats;
+import org.HdrHistogram.Histogram;
+import org.apache.bookkeeper.stats.Counter;
+import org.apache.bookkeeper.stats.Gauge;
+import org.apache.bookkeeper.stats.StatsLogger;
+
+/**
+ * Publishes the worker stats to the bookkeeper stats provider, i.e. the Prometheus endpoint of the worker, from the
+ * period snapshots of {@link WorkerStats} rather than from every message. Counters advance by the period totals and
+ * latencies are exported as percentile gauges of the last period histogram.
+ */
+class StatsExporter {
+
+  private final Counter messagesSentCounter;
+  private final Counter requestsSentCounter;
+  private final Counter messageSendErrorCounter;
+  private final Counter bytesSentCounter;
+  private final Counter messagesReceivedCounter;
+  private final Counter bytesReceivedCounter;
+
+  private volatile Histogram publishLatency;
+  private volatile Histogram endToEndLatency;
+
+  StatsExporter(StatsLogger statsLogger) {
+    StatsLogger producerStatsLogger = statsLogger.scope("producer");
+    this.messagesSentCounter = producerStatsLogger.getCounter("messages_sent");
+    this.requestsSentCounter = producerStatsLogger.getCounter("requests_sent");
+    this.messageSendErrorCounter = producerStatsLogger.getCounter("message_send_errors");
+    this.bytesSentCounter = producerStatsLogger.getCounter("bytes_sent");
+    registerLatencyGauges(producerStatsLogger.scope("produce_latency"), true);
+
+    StatsLogger consumerStatsLogger = statsLogger.scope("consumer");
+    this.messagesReceivedCounter = consumerStatsLogger.getCounter("messages_recv");
+    this.bytesReceivedCounter = consumerStatsLogger.getCounter("bytes_recv");
+    registerLatencyGauges(consumerStatsLogger.scope("e2e_latency"), false);
+  }
+
+  /**
+   * Called with every period snapshot, the histograms are kept as they are and must not be modified afterwards
+   */
+  void export(PeriodStats stats) {
+    messagesSentCounter.add(stats.messagesSent);
+    requestsSentCounter.add(stats.requestsSent);
+    messageSendErrorCounter.add(stats.messageSendErrors);
+    bytesSentCounter.add(stats.bytesSent);
+    messagesReceivedCounter.add(stats.messagesReceived);
+    bytesReceivedCounter.add(stats.bytesReceived);
+
+    publishLatency = stats.publishLatency;
+    endToEndLatency = stats.endToEndLatency;
+  }
+
+  void clear() {
+    messagesSentCounter.clear();
+    requestsSentCounter.clear();
+    messageSendErrorCounter.clear();
+    bytesSentCounter.clear();
+    messagesReceivedCounter.clear();
+    bytesReceivedCounter.clear();
+    publishLatency = null;
+    endToEndLatency = null;
+  }
+
+  private void registerLatencyGauges(StatsLogger latencyStatsLogger, boolean publish) {
+    registerPercentile(latencyStatsLogger, "p50", 50, publish);
+    registerPercentile(latencyStatsLogger, "p99", 99, publish);
+    registerPercentile(latencyStatsLogger, "p999", 99.9, publish);
+    registerPercentile(latencyStatsLogger, "max", 100, publish);
+  }
+
+  private void registerPercentile(StatsLogger latencyStatsLogger, String name, double percentile, boolean publish) {
+    // Micros, like the period stats
+    latencyStatsLogger.registerGauge(name, new Gauge<Long>() {
+      @Override
+      public Long getDefaultValue() {
+        return 0L;
+      }
+
+      @Override
+      public Long getSample() {
+        Histogram histogram = publish ? publishLatency : endToEndLatency;
+        return histogram != null ? histogram.getValueAtPercentile(percentile) : 0L;
+      }
+    });
+  }
+}
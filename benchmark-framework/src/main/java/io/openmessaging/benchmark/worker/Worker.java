@@ -22,11 +22,13 @@ import java.io.File;
 import java.io.IOException;
 import java.util.List;
 
+import io.openmessaging.benchmark.worker.commands.ClientCreationStats;
 import io.openmessaging.benchmark.worker.commands.ConsumerAssignment;
 import io.openmessaging.benchmark.worker.commands.CountersStats;
 import io.openmessaging.benchmark.worker.commands.CumulativeLatencies;
 import io.openmessaging.benchmark.worker.commands.PeriodStats;
 import io.openmessaging.benchmark.worker.commands.ProducerWorkAssignment;
+import io.openmessaging.benchmark.worker.commands.RecordingRequest;
 import io.openmessaging.benchmark.worker.commands.TopicsInfo;
 
 public interface Worker extends AutoCloseable {
@@ -42,6 +44,11 @@ public interface Worker extends AutoCloseable {
 
     void createConsumers(ConsumerAssignment consumerAssignment) throws IOException;
 
+    /**
+     * Returns how long each producer and consumer took to create since the previous call
+     */
+    ClientCreationStats getClientCreationStats() throws IOException;
+
     void probeProducers() throws IOException;
 
     void startLoad(ProducerWorkAssignment producerWorkAssignment) throws IOException;
@@ -67,4 +74,26 @@ public interface Worker extends AutoCloseable {
     void resetStats() throws IOException;
 
     void stopAll() throws IOException;
+
+    /**
+     * Stops the load and closes the producers and consumers like {@link #stopAll()}, but keeps the driver initialized
+     * for the next workload.
+     */
+    void stopLoad() throws IOException;
+
+    /**
+     * Stops the load and resets the stats, but keeps the producers and consumers for the next workload on the same
+     * topics. The consumers keep draining the topics meanwhile.
+     */
+    void stopProducers() throws IOException;
+
+    void startRecording(RecordingRequest recordingRequest) throws IOException;
+
+    void stopRecording() throws IOException;
+
+    /**
+     * Saves the JFR recording of the worker, or of each worker, covering its last max age to files named after the
+     * prefix. The recordings keep running.
+     */
+    void downloadRecording(String filePrefix) throws IOException;
 }
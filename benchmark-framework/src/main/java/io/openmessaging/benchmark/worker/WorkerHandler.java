@@ -18,6 +18,7 @@
  */
 package io.openmessaging.benchmark.worker;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.net.HttpURLConnection;
 import java.nio.ByteBuffer;
@@ -35,10 +36,12 @@ import com.google.common.io.Files;
 
 import io.javalin.Context;
 import io.javalin.Javalin;
+import io.openmessaging.benchmark.worker.commands.ClientCreationStats;
 import io.openmessaging.benchmark.worker.commands.ConsumerAssignment;
 import io.openmessaging.benchmark.worker.commands.CumulativeLatencies;
 import io.openmessaging.benchmark.worker.commands.PeriodStats;
 import io.openmessaging.benchmark.worker.commands.ProducerWorkAssignment;
+import io.openmessaging.benchmark.worker.commands.RecordingRequest;
 import io.openmessaging.benchmark.worker.commands.TopicsInfo;
 
 @SuppressWarnings("unchecked")
@@ -51,6 +54,7 @@ public class WorkerHandler {
     public static final String CREATE_PRODUCERS = "/create-producers";
     public static final String PROBE_PRODUCERS = "/probe-producers";
     public static final String CREATE_CONSUMERS = "/create-consumers";
+    public static final String CLIENT_CREATION_STATS = "/client-creation-stats";
     public static final String PAUSE_CONSUMERS = "/pause-consumers";
     public static final String RESUME_CONSUMERS = "/resume-consumers";
     public static final String PAUSE_PRODUCERS = "/pause-producers";
@@ -58,14 +62,19 @@ public class WorkerHandler {
     public static final String START_LOAD = "/start-load";
     public static final String ADJUST_PUBLISH_RATE = "/adjust-publish-rate";
     public static final String STOP_ALL = "/stop-all";
+    public static final String STOP_LOAD = "/stop-load";
+    public static final String STOP_PRODUCERS = "/stop-producers";
     public static final String PERIOD_STATS = "/period-stats";
     public static final String CUMULATIVE_LATENCIES = "/cumulative-latencies";
     public static final String COUNTERS_STATS = "/counters-stats";
     public static final String RESET_STATS = "/reset-stats";
-    private final Worker localWorker;
+    public static final String START_RECORDING = "/start-recording";
+    public static final String STOP_RECORDING = "/stop-recording";
+    public static final String DOWNLOAD_RECORDING = "/download-recording";
+    private final LocalWorker localWorker;
 
-    public WorkerHandler(Javalin app, StatsLogger statsLogger) {
-        this.localWorker = new LocalWorker(statsLogger);
+    public WorkerHandler(Javalin app, StatsLogger statsLogger, int clientCreationParallelism) {
+        this.localWorker = new LocalWorker(statsLogger, clientCreationParallelism);
 
         app.post(INITIALIZE_DRIVER, this::handleInitializeDriver);
         app.post(CREATE_TOPICS, this::handleCreateTopics);
@@ -73,6 +82,7 @@ public class WorkerHandler {
         app.post(CREATE_PRODUCERS, this::handleCreateProducers);
         app.post(PROBE_PRODUCERS, this::handleProbeProducers);
         app.post(CREATE_CONSUMERS, this::handleCreateConsumers);
+        app.get(CLIENT_CREATION_STATS, this::handleClientCreationStats);
         app.post(PAUSE_CONSUMERS, this::handlePauseConsumers);
         app.post(RESUME_CONSUMERS, this::handleResumeConsumers);
         app.post(PAUSE_PRODUCERS, this::handlePauseProducers);
@@ -80,11 +90,16 @@ public class WorkerHandler {
         app.post(START_LOAD, this::handleStartLoad);
         app.post(ADJUST_PUBLISH_RATE, this::handleAdjustPublishRate);
         app.post(STOP_ALL, this::handleStopAll);
+        app.post(STOP_LOAD, this::handleStopLoad);
+        app.post(STOP_PRODUCERS, this::handleStopProducers);
         app.get(PERIOD_STATS, this::handlePeriodStats);
         app.get(CUMULATIVE_LATENCIES, this::handleCumulativeLatencies);
         app.get(COUNTERS_STATS, this::handleCountersStats);
         app.post(RESET_STATS, this::handleResetStats);
         app.get(HEALTH_CHECK, this::healthCheck);
+        app.post(START_RECORDING, this::handleStartRecording);
+        app.post(STOP_RECORDING, this::handleStopRecording);
+        app.get(DOWNLOAD_RECORDING, this::handleDownloadRecording);
 
         app.exception(RuntimeException.class, (e, ctx) -> {
             log.error("Request handler: {} - Exception: {}", ctx.path(), e.getMessage());
@@ -157,8 +172,13 @@ public class WorkerHandler {
     private void handleStartLoad(Context ctx) throws Exception {
         ProducerWorkAssignment producerWorkAssignment = mapper.readValue(ctx.body(), ProducerWorkAssignment.class);
 
-        log.info("Start load publish-rate: {} msg/s -- payload-size: {}", producerWorkAssignment.publishRate,
-                producerWorkAssignment.payloadData.length);
+        if (producerWorkAssignment.payloadSpec != null) {
+            log.info("Start load publish-rate: {} msg/s -- payload-size: {} {}", producerWorkAssignment.publishRate,
+                    producerWorkAssignment.payloadSpec.sizeDistribution, producerWorkAssignment.payloadSpec.size);
+        } else {
+            log.info("Start load publish-rate: {} msg/s -- payload-size: {}", producerWorkAssignment.publishRate,
+                    producerWorkAssignment.payloadData.length);
+        }
 
         localWorker.startLoad(producerWorkAssignment);
     }
@@ -175,6 +195,32 @@ public class WorkerHandler {
         System.gc();
     }
 
+    private void handleStopLoad(Context ctx) throws Exception {
+        log.info("Stop Load");
+        localWorker.stopLoad();
+    }
+
+    private void handleStopProducers(Context ctx) throws Exception {
+        log.info("Stop Producers");
+        localWorker.stopProducers();
+    }
+
+    private void handleStartRecording(Context ctx) throws Exception {
+        RecordingRequest recordingRequest = mapper.readValue(ctx.body(), RecordingRequest.class);
+        localWorker.startRecording(recordingRequest);
+    }
+
+    private void handleStopRecording(Context ctx) throws Exception {
+        localWorker.stopRecording();
+    }
+
+    private void handleDownloadRecording(Context ctx) throws Exception {
+        byte[] recording = localWorker.getRecording();
+        log.info("Sending JFR recording of {} bytes", recording.length);
+        ctx.contentType("application/octet-stream");
+        ctx.result(new ByteArrayInputStream(recording));
+    }
+
     private void handlePeriodStats(Context ctx) throws Exception {
         PeriodStats stats = localWorker.getPeriodStats();
 
@@ -219,6 +265,28 @@ public class WorkerHandler {
         ctx.result(writer.writeValueAsString(stats));
     }
 
+    private void handleClientCreationStats(Context ctx) throws Exception {
+        ClientCreationStats stats = localWorker.getClientCreationStats();
+
+        // Serialize histograms
+        synchronized (histogramSerializationBuffer) {
+            histogramSerializationBuffer.clear();
+            stats.producerCreationLatency.encodeIntoCompressedByteBuffer(histogramSerializationBuffer);
+            stats.producerCreationLatencyBytes = new byte[histogramSerializationBuffer.position()];
+            histogramSerializationBuffer.flip();
+            histogramSerializationBuffer.get(stats.producerCreationLatencyBytes);
+
+            histogramSerializationBuffer.clear();
+            stats.consumerCreationLatency.encodeIntoCompressedByteBuffer(histogramSerializationBuffer);
+            stats.consumerCreationLatencyBytes = new byte[histogramSerializationBuffer.position()];
+            histogramSerializationBuffer.flip();
+            histogramSerializationBuffer.get(stats.consumerCreationLatencyBytes);
+            stats.isSerializedObject = true;
+        }
+
+        ctx.result(writer.writeValueAsString(stats));
+    }
+
     private void handleCountersStats(Context ctx) throws Exception {
         ctx.result(writer.writeValueAsString(localWorker.getCountersStats()));
     }
@@ -18,10 +18,9 @@ import io.openmessaging.benchmark.worker.commands.CumulativeLatencies;
 import io.openmessaging.benchmark.worker.commands.PeriodStats;
 import java.io.IOException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
 import java.util.concurrent.atomic.LongAdder;
 import org.HdrHistogram.Recorder;
-import org.apache.bookkeeper.stats.Counter;
-import org.apache.bookkeeper.stats.OpStatsLogger;
 import org.apache.bookkeeper.stats.StatsLogger;
 
 public class WorkerStats {
@@ -36,39 +35,37 @@ public class WorkerStats {
   private final LongAdder messagesReceived = new LongAdder();
   private final LongAdder bytesReceived = new LongAdder();
 
-  private final Counter messageSendErrorCounter;
-  private final Counter messagesSentCounter;
-  private final Counter requestsSentCounter;
-  private final Counter bytesSentCounter;
-  private final Counter messagesReceivedCounter;
-  private final Counter bytesReceivedCounter;
+  // Fed from the period snapshots, keeps the stats provider off the per-message path
+  private final StatsExporter statsExporter;
 
   private final LongAdder totalMessagesSent = new LongAdder();
   private final LongAdder totalMessageSendErrors = new LongAdder();
   private final LongAdder totalMessagesReceived = new LongAdder();
 
+  // Closed-loop producers
+  private final LongAdder inFlightWaitNanos = new LongAdder();
+  private final LongAdder thinkTimeNanos = new LongAdder();
+  private final LongAdder inFlightSum = new LongAdder();
+  private final LongAdder inFlightSamples = new LongAdder();
+  private final LongAccumulator maxInFlight = new LongAccumulator(Long::max, 0);
+
+  private final LongAdder producerPacedSends = new LongAdder();
+  private final LongAdder producerBehindScheduleSends = new LongAdder();
+  private final LongAdder producerBehindScheduleNanos = new LongAdder();
+  private final LongAccumulator maxReceiveQueueDepth = new LongAccumulator(Long::max, 0);
+  private final LongAdder receiveQueueOverflows = new LongAdder();
+
   private final Recorder publishLatencyRecorder = new Recorder(HIGHEST_TRACKABLE_PUBLISH_VALUE, 5);
   private final Recorder cumulativePublishLatencyRecorder = new Recorder(HIGHEST_TRACKABLE_PUBLISH_VALUE, 5);
-  private final OpStatsLogger publishLatencyStats;
 
   private final Recorder endToEndLatencyRecorder = new Recorder(HIGHEST_TRACKABLE_E2E_VALUE, 5);
   private final Recorder endToEndCumulativeLatencyRecorder = new Recorder(HIGHEST_TRACKABLE_E2E_VALUE, 5);
-  private final OpStatsLogger endToEndLatencyStats;
+
+  private final JvmStatsCollector jvmStatsCollector = new JvmStatsCollector();
 
   WorkerStats(StatsLogger statsLogger) {
     this.statsLogger = statsLogger;
-
-    StatsLogger producerStatsLogger = statsLogger.scope("producer");
-    this.messagesSentCounter = producerStatsLogger.getCounter("messages_sent");
-    this.requestsSentCounter = producerStatsLogger.getCounter("requests_sent");
-    this.messageSendErrorCounter = producerStatsLogger.getCounter("message_send_errors");
-    this.bytesSentCounter = producerStatsLogger.getCounter("bytes_sent");
-    this.publishLatencyStats = producerStatsLogger.getOpStatsLogger("produce_latency");
-
-    StatsLogger consumerStatsLogger = statsLogger.scope("consumer");
-    this.messagesReceivedCounter = consumerStatsLogger.getCounter("messages_recv");
-    this.bytesReceivedCounter = consumerStatsLogger.getCounter("bytes_recv");
-    this.endToEndLatencyStats = consumerStatsLogger.getOpStatsLogger("e2e_latency");
+    this.statsExporter = new StatsExporter(statsLogger);
   }
 
   public StatsLogger getStatsLogger() {
@@ -82,17 +79,50 @@ public class WorkerStats {
   public void recordMessageReceived(long payloadLength, long endToEndLatencyMicros) {
     messagesReceived.increment();
     totalMessagesReceived.increment();
-    messagesReceivedCounter.inc();
     bytesReceived.add(payloadLength);
-    bytesReceivedCounter.add(payloadLength);
 
     if (endToEndLatencyMicros > 0) {
       endToEndCumulativeLatencyRecorder.recordValue(endToEndLatencyMicros);
       endToEndLatencyRecorder.recordValue(endToEndLatencyMicros);
-      endToEndLatencyStats.registerSuccessfulEvent(endToEndLatencyMicros, TimeUnit.MICROSECONDS);
     }
   }
 
+  /**
+   * @param inFlightWaitNanos time blocked waiting for room in the in-flight window
+   * @param thinkTimeNanos time between getting room in the window and sending, i.e. the rate limiter pacing
+   * @param inFlight messages in flight for the producer, including this one
+   */
+  public void recordClosedLoopSend(long inFlightWaitNanos, long thinkTimeNanos, int inFlight) {
+    this.inFlightWaitNanos.add(inFlightWaitNanos);
+    this.thinkTimeNanos.add(thinkTimeNanos);
+    inFlightSum.add(inFlight);
+    inFlightSamples.increment();
+    maxInFlight.accumulate(inFlight);
+  }
+
+  /**
+   * @param behindSchedule whether the rate limiter let the send through without waiting, i.e. the producer thread
+   *     is not keeping up with the target rate
+   * @param behindScheduleNanos time the producer thread spent on the send loop since its previous send, when behind
+   *     schedule
+   */
+  public void recordProducerPacing(boolean behindSchedule, long behindScheduleNanos) {
+    if (behindSchedule) {
+      producerBehindScheduleSends.increment();
+      producerBehindScheduleNanos.add(behindScheduleNanos);
+    } else {
+      producerPacedSends.increment();
+    }
+  }
+
+  public void recordReceiveQueueDepth(long depth) {
+    maxReceiveQueueDepth.accumulate(depth);
+  }
+
+  public void recordReceiveQueueOverflow() {
+    receiveQueueOverflows.increment();
+  }
+
   public PeriodStats toPeriodStats() {
     PeriodStats stats = new PeriodStats();
 
@@ -108,8 +138,23 @@ public class WorkerStats {
     stats.totalMessageSendErrors = totalMessageSendErrors.sum();
     stats.totalMessagesReceived = totalMessagesReceived.sum();
 
+    stats.inFlightWaitMicros = TimeUnit.NANOSECONDS.toMicros(inFlightWaitNanos.sumThenReset());
+    stats.thinkTimeMicros = TimeUnit.NANOSECONDS.toMicros(thinkTimeNanos.sumThenReset());
+    stats.inFlightSum = inFlightSum.sumThenReset();
+    stats.inFlightSamples = inFlightSamples.sumThenReset();
+    stats.maxInFlight = maxInFlight.getThenReset();
+
+    stats.producerPacedSends = producerPacedSends.sumThenReset();
+    stats.producerBehindScheduleSends = producerBehindScheduleSends.sumThenReset();
+    stats.producerBehindScheduleMicros = TimeUnit.NANOSECONDS.toMicros(producerBehindScheduleNanos.sumThenReset());
+    stats.maxReceiveQueueDepth = maxReceiveQueueDepth.getThenReset();
+    stats.receiveQueueOverflows = receiveQueueOverflows.sumThenReset();
+
+    jvmStatsCollector.collect(stats);
+
     stats.publishLatency = publishLatencyRecorder.getIntervalHistogram();
     stats.endToEndLatency = endToEndLatencyRecorder.getIntervalHistogram();
+    statsExporter.export(stats);
     return stats;
   }
 
@@ -146,35 +191,34 @@ public class WorkerStats {
     bytesReceived.reset();
     totalMessagesSent.reset();
     totalMessagesReceived.reset();
-
-    bytesReceivedCounter.clear();
-    bytesSentCounter.clear();
-    messagesReceivedCounter.clear();
-    messagesSentCounter.clear();
-    requestsSentCounter.clear();
-    messagesSentCounter.clear();
+    inFlightWaitNanos.reset();
+    thinkTimeNanos.reset();
+    inFlightSum.reset();
+    inFlightSamples.reset();
+    maxInFlight.reset();
+    producerPacedSends.reset();
+    producerBehindScheduleSends.reset();
+    producerBehindScheduleNanos.reset();
+    maxReceiveQueueDepth.reset();
+    receiveQueueOverflows.reset();
+
+    statsExporter.clear();
   }
 
   public void recordProducerFailure() {
     messageSendErrors.increment();
-    messageSendErrorCounter.inc();
     totalMessageSendErrors.increment();
   }
 
-  public void recordProducerSuccess(long msgSent, long payloadLength, long sendTimeNs, long nowNs) {
+  public void recordProducerSuccess(long msgSent, long bytes, long sendTimeNs, long nowNs) {
     requestsSent.increment();
     messagesSent.add(msgSent);
     totalMessagesSent.add(msgSent);
-    bytesSent.add(payloadLength * msgSent);
-
-    requestsSentCounter.inc();
-    messagesSentCounter.add(msgSent);
-    bytesSentCounter.add(payloadLength * msgSent);
+    bytesSent.add(bytes);
 
     final long latencyMicros =
         Math.min(HIGHEST_TRACKABLE_PUBLISH_VALUE, TimeUnit.NANOSECONDS.toMicros(nowNs - sendTimeNs));
     publishLatencyRecorder.recordValue(latencyMicros);
     cumulativePublishLatencyRecorder.recordValue(latencyMicros);
-    publishLatencyStats.registerSuccessfulEvent(latencyMicros, TimeUnit.MICROSECONDS);
   }
 }
@@ -0,0 +1,63 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker.commands;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Time it took to create each producer and consumer since the previous request for these stats, in microseconds.
+ */
+public class ClientCreationStats {
+
+    public static final long HIGHEST_TRACKABLE_VALUE = TimeUnit.MINUTES.toMicros(10);
+
+    public Boolean isSerializedObject = false;
+
+    @JsonIgnore
+    public Histogram producerCreationLatency = new Histogram(HIGHEST_TRACKABLE_VALUE, 5);
+    public byte[] producerCreationLatencyBytes;
+
+    @JsonIgnore
+    public Histogram consumerCreationLatency = new Histogram(HIGHEST_TRACKABLE_VALUE, 5);
+    public byte[] consumerCreationLatencyBytes;
+
+    public ClientCreationStats plus(ClientCreationStats toAdd) {
+        ClientCreationStats result = new ClientCreationStats();
+        result.producerCreationLatency.add(this.producerCreationLatency);
+        result.consumerCreationLatency.add(this.consumerCreationLatency);
+
+        if (toAdd.isSerializedObject) {
+            try {
+                result.producerCreationLatency.add(Histogram.decodeFromCompressedByteBuffer(
+                        ByteBuffer.wrap(toAdd.producerCreationLatencyBytes), HIGHEST_TRACKABLE_VALUE));
+                result.consumerCreationLatency.add(Histogram.decodeFromCompressedByteBuffer(
+                        ByteBuffer.wrap(toAdd.consumerCreationLatencyBytes), HIGHEST_TRACKABLE_VALUE));
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to decode client creation histograms", e);
+            }
+        } else {
+            result.producerCreationLatency.add(toAdd.producerCreationLatency);
+            result.consumerCreationLatency.add(toAdd.consumerCreationLatency);
+        }
+        return result;
+    }
+}
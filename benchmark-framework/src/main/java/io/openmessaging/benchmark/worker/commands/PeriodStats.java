@@ -48,6 +48,32 @@ public class PeriodStats {
     public long totalMessageSendErrors = 0;
     public long totalMessagesReceived = 0;
 
+    // Closed-loop producers: time spent waiting for room in the in-flight window, pacing time between getting room
+    // and sending, and the number of messages in flight sampled at every send
+    public long inFlightWaitMicros = 0;
+    public long thinkTimeMicros = 0;
+    public long inFlightSum = 0;
+    public long inFlightSamples = 0;
+    public long maxInFlight = 0;
+
+    // Client saturation: sends the rate limiter held back or not, and the consumer stats queue
+    public long producerPacedSends = 0;
+    public long producerBehindScheduleSends = 0;
+    public long producerBehindScheduleMicros = 0;
+    public long maxReceiveQueueDepth = 0;
+    public long receiveQueueOverflows = 0;
+
+    // Worker JVMs, see JvmStatsCollector. Counts are summed over the workers, max values come from the worst worker
+    public long gcCount = 0;
+    public long gcPauseMillis = 0;
+    public long maxGcPauseMillis = 0;
+    public long maxHeapAfterGcBytes = 0;
+    public long allocatedBytes = 0;
+    public long processCpuTimeMillis = 0;
+    public int availableProcessors = 0;
+    public double maxProcessCpuPercent = 0;
+    public int maxThreadCount = 0;
+
     @JsonIgnore
     public Histogram publishLatency = new Histogram(TimeUnit.SECONDS.toMicros(600), 5);
     public byte[] publishLatencyBytes;
@@ -68,6 +94,25 @@ public class PeriodStats {
         result.totalMessagesSent += this.totalMessagesSent;
         result.totalMessageSendErrors += this.totalMessageSendErrors;
         result.totalMessagesReceived += this.totalMessagesReceived;
+        result.inFlightWaitMicros += this.inFlightWaitMicros;
+        result.thinkTimeMicros += this.thinkTimeMicros;
+        result.inFlightSum += this.inFlightSum;
+        result.inFlightSamples += this.inFlightSamples;
+        result.maxInFlight = this.maxInFlight;
+        result.producerPacedSends += this.producerPacedSends;
+        result.producerBehindScheduleSends += this.producerBehindScheduleSends;
+        result.producerBehindScheduleMicros += this.producerBehindScheduleMicros;
+        result.maxReceiveQueueDepth = this.maxReceiveQueueDepth;
+        result.receiveQueueOverflows += this.receiveQueueOverflows;
+        result.gcCount += this.gcCount;
+        result.gcPauseMillis += this.gcPauseMillis;
+        result.maxGcPauseMillis = this.maxGcPauseMillis;
+        result.maxHeapAfterGcBytes = this.maxHeapAfterGcBytes;
+        result.allocatedBytes += this.allocatedBytes;
+        result.processCpuTimeMillis += this.processCpuTimeMillis;
+        result.availableProcessors += this.availableProcessors;
+        result.maxProcessCpuPercent = this.maxProcessCpuPercent;
+        result.maxThreadCount = this.maxThreadCount;
         result.publishLatency.add(this.publishLatency);
         result.endToEndLatency.add(this.endToEndLatency);
 
@@ -80,6 +125,25 @@ public class PeriodStats {
         result.totalMessagesSent += toAdd.totalMessagesSent;
         result.totalMessageSendErrors += toAdd.totalMessageSendErrors;
         result.totalMessagesReceived += toAdd.totalMessagesReceived;
+        result.inFlightWaitMicros += toAdd.inFlightWaitMicros;
+        result.thinkTimeMicros += toAdd.thinkTimeMicros;
+        result.inFlightSum += toAdd.inFlightSum;
+        result.inFlightSamples += toAdd.inFlightSamples;
+        result.maxInFlight = Math.max(result.maxInFlight, toAdd.maxInFlight);
+        result.producerPacedSends += toAdd.producerPacedSends;
+        result.producerBehindScheduleSends += toAdd.producerBehindScheduleSends;
+        result.producerBehindScheduleMicros += toAdd.producerBehindScheduleMicros;
+        result.maxReceiveQueueDepth = Math.max(result.maxReceiveQueueDepth, toAdd.maxReceiveQueueDepth);
+        result.receiveQueueOverflows += toAdd.receiveQueueOverflows;
+        result.gcCount += toAdd.gcCount;
+        result.gcPauseMillis += toAdd.gcPauseMillis;
+        result.maxGcPauseMillis = Math.max(result.maxGcPauseMillis, toAdd.maxGcPauseMillis);
+        result.maxHeapAfterGcBytes = Math.max(result.maxHeapAfterGcBytes, toAdd.maxHeapAfterGcBytes);
+        result.allocatedBytes += toAdd.allocatedBytes;
+        result.processCpuTimeMillis += toAdd.processCpuTimeMillis;
+        result.availableProcessors += toAdd.availableProcessors;
+        result.maxProcessCpuPercent = Math.max(result.maxProcessCpuPercent, toAdd.maxProcessCpuPercent);
+        result.maxThreadCount = Math.max(result.maxThreadCount, toAdd.maxThreadCount);
 
         if(toAdd.isSerializedObject){
             try {
@@ -18,21 +18,48 @@
  */
 package io.openmessaging.benchmark.worker.commands;
 
+import io.openmessaging.benchmark.utils.distributor.KeyDistributorSpec;
 import io.openmessaging.benchmark.utils.distributor.KeyDistributorType;
+import io.openmessaging.benchmark.utils.payload.PayloadSpec;
 
 public class ProducerWorkAssignment {
     
     public byte[] payloadData;
+
+    /** When set, the worker generates its payloads from the spec and ignores payloadData */
+    public PayloadSpec payloadSpec;
     
     public double publishRate;
 
     public KeyDistributorType keyDistributorType;
 
+    public KeyDistributorSpec keyDistributorSpec = new KeyDistributorSpec();
+
+    public LoadMode loadMode = LoadMode.OPEN_LOOP;
+
+    public int maxInFlightMessages;
+
+    public int maxInFlightBytes;
+
+    public int producerThreads;
+
+    public String producerCpus;
+
+    public String driverCpus;
+
     public ProducerWorkAssignment withPublishRate(double publishRate) {
         ProducerWorkAssignment copy = new ProducerWorkAssignment();
         copy.keyDistributorType = this.keyDistributorType;
+        copy.keyDistributorSpec = this.keyDistributorSpec;
         copy.payloadData = this.payloadData;
+        copy.payloadSpec = this.payloadSpec;
         copy.publishRate = publishRate;
+        copy.loadMode = this.loadMode;
+        copy.maxInFlightMessages = this.maxInFlightMessages;
+        copy.maxInFlightBytes = this.maxInFlightBytes;
+        copy.producerThreads = this.producerThreads;
+        copy.producerCpus = this.producerCpus;
+        copy.driverCpus = this.driverCpus;
         return copy;
     }
 }
@@ -0,0 +1,33 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker.commands;
+
+public class RecordingRequest {
+    /** JFR settings to record with: "default", "profile" or the path of a .jfc file on the worker */
+    public String settings = "profile";
+
+    /** History kept by the recording, i.e. the window a download covers. 0 keeps everything */
+    public int maxAgeSeconds = 120;
+
+    /** Stop the recording on its own after this time, 0 to record until stopped */
+    public int durationSeconds = 0;
+
+    /** Emit a message send event for one out of this many sends of each producer thread */
+    public int sendSampling = 1000;
+}
@@ -18,11 +18,17 @@
  */
 package io.openmessaging.benchmark.worker.commands;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class TopicSubscription {
     public String topic;
     public String subscription;
     public int partition;
 
+    /** Partitions of the topic owned by this consumer when the subscription splits them evenly */
+    public List<Integer> assignedPartitions = new ArrayList<>();
+
     public TopicSubscription() {
     }
 
@@ -32,4 +38,9 @@ public class TopicSubscription {
         this.partition = partition;
     }
 
+    public TopicSubscription(String topic, String subscription, int partition, List<Integer> assignedPartitions) {
+        this(topic, subscription, partition);
+        this.assignedPartitions = assignedPartitions;
+    }
+
 }
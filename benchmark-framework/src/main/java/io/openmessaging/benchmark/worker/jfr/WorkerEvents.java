@@ -0,0 +1,151 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder events of the benchmark worker. They cost nothing unless a recording is running, see
+ * {@link WorkerRecorder}.
+ */
+public final class WorkerEvents {
+
+    private static volatile int sendSampling = 1000;
+
+    private WorkerEvents() {
+    }
+
+    static void setSendSampling(int sampling) {
+        sendSampling = Math.max(1, sampling);
+    }
+
+    /**
+     * Starts a send event for one out of every sendSampling sends, returns null for the others or when no recording
+     * is running
+     *
+     * @param sequence number of the send on the calling producer thread
+     */
+    public static MessageSend beginSampledSend(long sequence, int payloadSize, boolean behindSchedule) {
+        if (sequence % sendSampling != 0) {
+            return null;
+        }
+        MessageSend event = new MessageSend();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.payloadSize = payloadSize;
+        event.behindSchedule = behindSchedule;
+        event.begin();
+        return event;
+    }
+
+    public static void endSend(MessageSend event, Integer messagesSent, Throwable error) {
+        event.end();
+        event.messagesSent = messagesSent != null ? messagesSent : 0;
+        event.success = error == null;
+        event.commit();
+    }
+
+    public static void phase(String phase) {
+        PhaseTransition event = new PhaseTransition();
+        event.phase = phase;
+        event.commit();
+    }
+
+    public static void rateAdjustment(double publishRate) {
+        RateAdjustment event = new RateAdjustment();
+        event.publishRate = publishRate;
+        event.commit();
+    }
+
+    @Name("io.openmessaging.benchmark.MessageSend")
+    @Label("Message Send")
+    @Category({"OpenMessaging Benchmark", "Producer"})
+    @Description("Sampled send, from the rate limiter letting it through to its completion")
+    @StackTrace(false)
+    public static class MessageSend extends Event {
+        @Label("Payload Size")
+        @DataAmount
+        public int payloadSize;
+
+        @Label("Messages Sent")
+        @Description("Messages acknowledged by the completion, more than one for batching drivers")
+        public long messagesSent;
+
+        @Label("Success")
+        public boolean success;
+
+        @Label("Behind Schedule")
+        @Description("The rate limiter let the send through without waiting")
+        public boolean behindSchedule;
+    }
+
+    @Name("io.openmessaging.benchmark.StatsScrape")
+    @Label("Stats Scrape")
+    @Category({"OpenMessaging Benchmark", "Worker"})
+    @StackTrace(false)
+    public static class StatsScrape extends Event {
+        @Label("Kind")
+        public String kind;
+
+        @Label("Messages Sent")
+        public long messagesSent;
+
+        @Label("Messages Received")
+        public long messagesReceived;
+    }
+
+    @Name("io.openmessaging.benchmark.ClientCreation")
+    @Label("Client Creation")
+    @Category({"OpenMessaging Benchmark", "Worker"})
+    @Description("Creation of the producers or consumers of a worker")
+    public static class ClientCreation extends Event {
+        @Label("Client Type")
+        public String clientType;
+
+        @Label("Count")
+        public int count;
+    }
+
+    @Name("io.openmessaging.benchmark.RateAdjustment")
+    @Label("Rate Adjustment")
+    @Category({"OpenMessaging Benchmark", "Producer"})
+    @StackTrace(false)
+    public static class RateAdjustment extends Event {
+        @Label("Publish Rate")
+        @Description("Target publish rate of the worker in messages per second")
+        public double publishRate;
+    }
+
+    @Name("io.openmessaging.benchmark.PhaseTransition")
+    @Label("Phase Transition")
+    @Category({"OpenMessaging Benchmark", "Worker"})
+    @Description("Load started, producers or consumers paused or resumed, stats reset, test stopped")
+    @StackTrace(false)
+    public static class PhaseTransition extends Event {
+        @Label("Phase")
+        public String phase;
+    }
+}
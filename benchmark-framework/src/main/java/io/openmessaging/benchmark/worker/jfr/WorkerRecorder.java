@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker.jfr;
+
+import io.openmessaging.benchmark.worker.commands.RecordingRequest;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Manages the on-demand JFR recording of a worker. The last recording is kept after it stops so that it can still be
+ * downloaded, until the next one starts.
+ */
+public class WorkerRecorder implements AutoCloseable {
+
+    private Recording recording;
+
+    public synchronized void start(RecordingRequest request) throws IOException {
+        close();
+
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(request.settings);
+        } catch (IOException | ParseException e) {
+            try {
+                configuration = Configuration.create(Paths.get(request.settings));
+            } catch (ParseException pe) {
+                throw new IOException("Invalid JFR settings " + request.settings, pe);
+            }
+        }
+
+        WorkerEvents.setSendSampling(request.sendSampling);
+        recording = new Recording(configuration);
+        recording.setName("benchmark-worker");
+        recording.setToDisk(true);
+        if (request.maxAgeSeconds > 0) {
+            recording.setMaxAge(Duration.ofSeconds(request.maxAgeSeconds));
+        }
+        if (request.durationSeconds > 0) {
+            recording.setDuration(Duration.ofSeconds(request.durationSeconds));
+        }
+        recording.start();
+        log.info("Started JFR recording with {} settings, max age {} s, duration {} s", request.settings,
+                request.maxAgeSeconds, request.durationSeconds);
+    }
+
+    public synchronized void stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("Stopped JFR recording");
+        }
+    }
+
+    /**
+     * Returns the content of the running or last stopped recording, within its max age
+     */
+    public synchronized byte[] dump() throws IOException {
+        if (recording == null) {
+            throw new IllegalStateException("No JFR recording was started");
+        }
+        Path file = Files.createTempFile("benchmark-worker", ".jfr");
+        try {
+            recording.dump(file);
+            return Files.readAllBytes(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(WorkerRecorder.class);
+}
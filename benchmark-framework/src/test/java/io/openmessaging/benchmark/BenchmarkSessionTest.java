@@ -0,0 +1,70 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.openmessaging.benchmark.pojo.Workload;
+import org.junit.Test;
+
+public class BenchmarkSessionTest {
+
+    @Test
+    public void testSameLayoutIgnoresRateAndPayload() {
+        // Given
+        Workload previous = workload();
+        Workload next = workload();
+        next.producerRate = 50_000;
+        next.messageSize = 4096;
+        next.testDurationMinutes = 30;
+
+        // Then
+        assertTrue(BenchmarkSession.sameLayout(previous, next));
+    }
+
+    @Test
+    public void testDifferentClientsOrBacklogStartAfresh() {
+        // Given
+        Workload previous = workload();
+        Workload moreConsumers = workload();
+        moreConsumers.consumerPerSubscription = 2;
+        Workload morePartitions = workload();
+        morePartitions.partitionsPerTopic = 32;
+        Workload backlog = workload();
+        backlog.consumerBacklogSizeGB = 1;
+
+        // Then
+        assertFalse(BenchmarkSession.sameLayout(previous, moreConsumers));
+        assertFalse(BenchmarkSession.sameLayout(previous, morePartitions));
+        assertFalse(BenchmarkSession.sameLayout(previous, backlog));
+    }
+
+    private static Workload workload() {
+        Workload workload = new Workload();
+        workload.topics = 1;
+        workload.partitionsPerTopic = 16;
+        workload.producersPerTopic = 1;
+        workload.subscriptionsPerTopic = 1;
+        workload.consumerPerSubscription = 1;
+        workload.producerRate = 10_000;
+        workload.messageSize = 1024;
+        return workload;
+    }
+}
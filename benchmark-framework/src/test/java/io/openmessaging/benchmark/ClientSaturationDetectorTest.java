@@ -0,0 +1,71 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.openmessaging.benchmark.pojo.ClientSaturationAction;
+import io.openmessaging.benchmark.pojo.Workload;
+import io.openmessaging.benchmark.worker.commands.PeriodStats;
+import org.junit.Test;
+
+public class ClientSaturationDetectorTest {
+
+    @Test
+    public void testProducersBehindScheduleBelowTargetRate() {
+        // Given
+        ClientSaturationDetector detector = new ClientSaturationDetector(new Workload());
+        PeriodStats stats = new PeriodStats();
+        stats.messagesSent = 80_000;
+        stats.producerPacedSends = 1_000;
+        stats.producerBehindScheduleSends = 79_000;
+
+        // Then
+        assertEquals(1, detector.check(stats, 10, 10_000).size());
+
+        // When the producers keep up with the target rate
+        stats.messagesSent = 100_000;
+
+        // Then
+        assertTrue(detector.check(stats, 10, 10_000).isEmpty());
+    }
+
+    @Test
+    public void testStopsAfterConsecutiveSaturatedIntervals() {
+        // Given
+        Workload workload = new Workload();
+        workload.clientSaturationAction = ClientSaturationAction.STOP;
+        workload.clientSaturationMaxIntervals = 2;
+        ClientSaturationDetector detector = new ClientSaturationDetector(workload);
+        PeriodStats saturated = new PeriodStats();
+        saturated.maxProcessCpuPercent = 97;
+
+        // When
+        detector.check(saturated, 10, 10_000);
+        detector.check(new PeriodStats(), 10, 10_000);
+        detector.check(saturated, 10, 10_000);
+
+        // Then
+        assertFalse(detector.shouldStop());
+        detector.check(saturated, 10, 10_000);
+        assertTrue(detector.shouldStop());
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.openmessaging.benchmark.pojo.output.SnapshotResult;
+import io.openmessaging.benchmark.pojo.output.TestDetails;
+import io.openmessaging.benchmark.pojo.output.TestResult;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestResultWriterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSnapshotsAreStreamedThenFinalized() throws Exception {
+        // Given
+        String prefix = new File(folder.getRoot(), "run").getPath();
+        TestResultWriter writer = new TestResultWriter(prefix);
+
+        // When
+        writer.append(SnapshotResult.builder().uuid("id").timeSinceTestStartInSeconds(10).build());
+        writer.append(SnapshotResult.builder().uuid("id").timeSinceTestStartInSeconds(20).build());
+
+        // Then the snapshots are on disk before the test ends
+        File partial = new File(prefix + "-snapshot.json" + TestResultWriter.PARTIAL_SUFFIX);
+        assertEquals(2, Files.readAllLines(partial.toPath()).size());
+
+        // When
+        TestResult result = new TestResult();
+        result.testDetails = new TestDetails();
+        writer.finish(result);
+
+        // Then
+        List<String> lines = Files.readAllLines(new File(prefix + "-snapshot.json").toPath());
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).contains("\"timeSinceTestStartInSeconds\":20"));
+        assertFalse(partial.exists());
+        assertTrue(new File(prefix + "-details.json").exists());
+        assertTrue(new File(prefix + "-aggregate.json").exists());
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class WorkloadGeneratorTest {
+
+    @Test
+    public void testConsumersOutnumberingPartitionsStayIdle() {
+        // Given
+        int partitions = 3;
+        int consumers = 5;
+
+        // When
+        List<Integer> allAssigned = new ArrayList<>();
+        List<List<Integer>> assignments = new ArrayList<>();
+        for (int consumer = 0; consumer < consumers; consumer++) {
+            List<Integer> assigned = WorkloadGenerator.assignedPartitions(partitions, consumers, consumer);
+            assignments.add(assigned);
+            allAssigned.addAll(assigned);
+        }
+
+        // Then every partition is read by exactly one consumer and the surplus consumers get none
+        Collections.sort(allAssigned);
+        assertEquals(Arrays.asList(0, 1, 2), allAssigned);
+        assertTrue(assignments.get(3).isEmpty());
+        assertTrue(assignments.get(4).isEmpty());
+    }
+
+    @Test
+    public void testConsumersShareManyPartitions() {
+        // Then
+        assertEquals(Arrays.asList(1, 3, 5), WorkloadGenerator.assignedPartitions(6, 2, 1));
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.regression;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.openmessaging.benchmark.pojo.output.ComparisonResult;
+import io.openmessaging.benchmark.pojo.output.LatencyMetric;
+import io.openmessaging.benchmark.pojo.output.LatencyResult;
+import io.openmessaging.benchmark.pojo.output.RegressionReport;
+import io.openmessaging.benchmark.pojo.output.SnapshotResult;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.HdrHistogram.Histogram;
+import org.junit.Test;
+
+public class RegressionGateTest {
+
+    private final Random random = new Random(7);
+
+    @Test
+    public void testNoisyRunsWithinTolerancePass() {
+        // Given
+        ResultSet baseline = results(30, 10_000, 20);
+        ResultSet current = results(30, 9_950, 20.2);
+
+        // When
+        RegressionReport report = new RegressionGate(0.05, 1).compare(baseline, current);
+
+        // Then
+        assertFalse(report.regression);
+        assertTrue(report.comparisons.stream().allMatch(c -> "bootstrap".equals(c.getMethod())));
+    }
+
+    @Test
+    public void testLatencyAndThroughputRegressionsAreFlagged() {
+        // Given
+        ResultSet baseline = results(30, 10_000, 20);
+        ResultSet current = results(30, 8_000, 30);
+
+        // When
+        RegressionReport report = new RegressionGate(0.05, 1).compare(baseline, current);
+
+        // Then
+        assertTrue(report.regression);
+        assertTrue(regressed(report, "PublishRate"));
+        assertTrue(regressed(report, "PublishLatencyP99"));
+        assertTrue(regressed(report, "E2ELatencyAvg"));
+    }
+
+    @Test
+    public void testShortRunsFallBackToThresholds() {
+        // Given
+        ResultSet baseline = results(2, 10_000, 20);
+        ResultSet current = results(2, 10_000, 30);
+
+        // When
+        RegressionReport report = new RegressionGate(0.05, 1).compare(baseline, current);
+
+        // Then
+        assertTrue(report.regression);
+        assertEquals("threshold", report.comparisons.get(0).getMethod());
+    }
+
+    private static boolean regressed(RegressionReport report, String metricName) {
+        return report.comparisons.stream()
+                .filter(c -> metricName.equals(c.getMetricName()))
+                .anyMatch(ComparisonResult::isRegression);
+    }
+
+    /**
+     * Intervals with 2% noise around the given rate and latency, in milliseconds
+     */
+    private ResultSet results(int intervals, double rate, double latencyMillis) {
+        List<SnapshotResult> snapshots = new ArrayList<>();
+        List<Histogram> latencies = new ArrayList<>();
+        Histogram total = new Histogram(5);
+        for (int i = 0; i < intervals; i++) {
+            SnapshotResult snapshot = new SnapshotResult();
+            snapshot.publishRate = rate * noise();
+            snapshot.consumeRate = snapshot.publishRate;
+            snapshots.add(snapshot);
+
+            Histogram histogram = new Histogram(5);
+            double intervalLatency = latencyMillis * noise();
+            for (int j = 0; j < 1_000; j++) {
+                histogram.recordValue((long) (intervalLatency * 1000 * (0.5 + random.nextDouble())));
+            }
+            latencies.add(histogram);
+            total.add(histogram);
+        }
+        LatencyResult aggregate = new LatencyResult();
+        aggregate.latencyMetric = new LatencyMetric();
+        aggregate.latencyMetric.populatePublishLatency(total);
+        aggregate.latencyMetric.populateE2ELatency(total);
+        return new ResultSet("test", snapshots, aggregate, latencies, Collections.unmodifiableList(latencies));
+    }
+
+    private double noise() {
+        return 1 + (random.nextDouble() - 0.5) * 0.04;
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.regression;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ResultSetTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testFindBaselineOfSameName() throws IOException {
+        // given
+        File baselineDir = folder.newFolder("baseline");
+        writeSnapshot(baselineDir, "throughput-test");
+
+        // when
+        String baseline = ResultSet.findBaseline(baselineDir, "/results/throughput-test");
+
+        // then
+        assertEquals(new File(baselineDir, "throughput-test").getPath(), baseline);
+    }
+
+    @Test
+    public void testFindLatestBaselineIgnoringTimestamp() throws IOException {
+        // given
+        File baselineDir = folder.newFolder("baseline");
+        writeSnapshot(baselineDir, "Kafka-kafka-1-topic-1kb-2026-10-01-08-00-00");
+        writeSnapshot(baselineDir, "Kafka-kafka-1-topic-1kb-2026-10-02-08-00-00");
+        writeSnapshot(baselineDir, "Kafka-kafka-1-topic-1kb-extra-2026-10-03-08-00-00");
+
+        // when
+        String baseline = ResultSet.findBaseline(baselineDir, "Kafka-kafka-1-topic-1kb-2026-10-19-09-30-00");
+
+        // then
+        assertEquals(new File(baselineDir, "Kafka-kafka-1-topic-1kb-2026-10-02-08-00-00").getPath(), baseline);
+    }
+
+    @Test
+    public void testFindNoBaseline() throws IOException {
+        // given
+        File baselineDir = folder.newFolder("baseline");
+        writeSnapshot(baselineDir, "Kafka-kafka-1-topic-1kb-extra-2026-10-03-08-00-00");
+
+        // when
+        String timestamped = ResultSet.findBaseline(baselineDir, "Kafka-kafka-1-topic-1kb-2026-10-19-09-30-00");
+        String named = ResultSet.findBaseline(baselineDir, "throughput-test");
+
+        // then
+        assertNull(timestamped);
+        assertNull(named);
+    }
+
+    private static void writeSnapshot(File dir, String fileNamePrefix) throws IOException {
+        new File(dir, fileNamePrefix + "-snapshot.json").createNewFile();
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.sink;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileResultSinkTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRetryDoesNotDuplicateAppendedTables() throws Exception {
+        // Given a batch whose last table cannot be appended to
+        File results = folder.newFolder("results");
+        String fileNamePrefix = writeResults("test-1");
+        File aggregates = new File(results, "PerformanceRunAggregates.json");
+        assertTrue(aggregates.mkdir());
+        FileResultSink sink = new FileResultSink(results);
+        List<String> batch = Collections.singletonList(fileNamePrefix);
+        try {
+            sink.publish(batch);
+            fail("Appending to a directory should fail");
+        } catch (IOException expected) {
+            // The first two tables were appended
+        }
+
+        // When the batch is retried once the table can be appended to
+        assertTrue(aggregates.delete());
+        sink.publish(batch);
+
+        // Then every table holds the batch once
+        assertEquals(1, lines(new File(results, "PerformanceRunDetails.json")).size());
+        assertEquals(2, lines(new File(results, "PerformanceRunIndividualSnapshots.json")).size());
+        assertEquals(1, lines(aggregates).size());
+    }
+
+    @Test
+    public void testNextBatchIsAppended() throws Exception {
+        // Given
+        File results = folder.newFolder("results");
+        FileResultSink sink = new FileResultSink(results);
+
+        // When
+        sink.publish(Collections.singletonList(writeResults("test-1")));
+        sink.publish(Collections.singletonList(writeResults("test-2")));
+
+        // Then
+        assertEquals(2, lines(new File(results, "PerformanceRunDetails.json")).size());
+        assertEquals(4, lines(new File(results, "PerformanceRunIndividualSnapshots.json")).size());
+        assertEquals(2, lines(new File(results, "PerformanceRunAggregates.json")).size());
+    }
+
+    private String writeResults(String name) throws IOException {
+        String fileNamePrefix = new File(folder.getRoot(), name).getPath();
+        write(fileNamePrefix + "-details.json", "{\"name\": \"" + name + "\"}");
+        write(fileNamePrefix + "-snapshot.json", "{\"interval\":1}\n{\"interval\":2}\n");
+        write(fileNamePrefix + "-aggregate.json", "{\"count\": 2}");
+        return fileNamePrefix;
+    }
+
+    private static void write(String path, String content) throws IOException {
+        Files.write(new File(path).toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> lines(File file) throws IOException {
+        return Files.readAllLines(file.toPath());
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.sink;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class ResultSinkPipelineTest {
+
+    @Test
+    public void testFailedBatchIsRetried() throws Exception {
+        // Given a sink that fails once
+        List<List<String>> published = Collections.synchronizedList(new ArrayList<>());
+        ResultSink sink = new ResultSink() {
+            private int calls = 0;
+
+            @Override
+            public String getName() {
+                return "flaky";
+            }
+
+            @Override
+            public void publish(List<String> fileNamePrefixes) throws IOException {
+                if (calls++ == 0) {
+                    throw new IOException("unavailable");
+                }
+                published.add(new ArrayList<>(fileNamePrefixes));
+            }
+        };
+        ResultSinkPipeline pipeline = new ResultSinkPipeline(Collections.singletonList(sink));
+
+        // When
+        assertTrue(pipeline.submit("test-1"));
+        pipeline.close(30, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(Collections.singletonList(Collections.singletonList("test-1")), published);
+    }
+}
@@ -23,11 +23,14 @@ import static io.openmessaging.benchmark.utils.distributor.KeyDistributorType.RA
 import static java.util.stream.Collectors.counting;
 import static java.util.stream.Collectors.groupingBy;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
+import io.openmessaging.benchmark.utils.Murmur2;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Stream;
-
+import org.apache.kafka.common.utils.Utils;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -70,4 +73,51 @@ public class KeyDistributorTest {
         assertEquals(10_000, collect.size());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testAliasTable() {
+        // Given
+        AliasTable aliasTable = new AliasTable(new double[] { 1, 0, 3 });
+        int[] hits = new int[3];
+
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            hits[aliasTable.next()]++;
+        }
+
+        // Then
+        assertEquals(0, hits[1]);
+        assertEquals(3.0, (double) hits[2] / hits[0], 0.15);
+    }
+
+    @Test
+    public void testHotSet() {
+        // Given
+        KeyDistributorSpec spec = new KeyDistributorSpec();
+        spec.keyCount = 100;
+        spec.hotSetPercentage = 10;
+        spec.hotTrafficPercentage = 90;
+        KeyDistributor hotSet = KeyDistributor.build(KeyDistributorType.HOT_SET, spec);
+
+        // When
+        Map<String, Long> collect = Stream.generate(hotSet::next)
+                .limit(100_000)
+                .collect(groupingBy(Function.identity(), counting()));
+
+        // Then
+        long hotHits = collect.values().stream().filter(count -> count > 5_000).mapToLong(Long::longValue).sum();
+        assertEquals(100, collect.size());
+        assertTrue("Hot keys got " + hotHits + " hits", hotHits > 88_000 && hotHits < 92_000);
+    }
+
+    @Test
+    public void testMurmur2MatchesKafkaPartitioner() {
+        // Given keys covering every tail length
+        for (String key : new String[] {"", "a", "ab", "abc", "21", "foobar", "a-little-bit-longer-string"}) {
+            byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+
+            // Then
+            assertEquals(Utils.murmur2(bytes), Murmur2.hash(bytes));
+            assertEquals(Utils.toPositive(Utils.murmur2(bytes)) % 7, Murmur2.partition(bytes, 7));
+        }
+    }
+}
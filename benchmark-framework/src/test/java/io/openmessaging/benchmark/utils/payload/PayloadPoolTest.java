@@ -0,0 +1,83 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.utils.payload;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.zip.Deflater;
+
+import org.junit.Test;
+
+public class PayloadPoolTest {
+
+    @Test
+    public void testUniformSizesStayWithinBounds() {
+        // Given
+        PayloadSpec spec = new PayloadSpec();
+        spec.sizeDistribution = PayloadSizeDistribution.UNIFORM;
+        spec.minSize = 100;
+        spec.maxSize = 200;
+
+        // When
+        PayloadPool pool = PayloadPool.generate(spec.resolve(0));
+
+        // Then
+        assertEquals(1024, pool.size());
+        for (int i = 0; i < 10_000; i++) {
+            int length = pool.next().length;
+            assertTrue(length >= 100 && length <= 200);
+        }
+        assertEquals(150, pool.averageSize(), 5);
+    }
+
+    @Test
+    public void testLogNormalMeanMatchesSize() {
+        // Given
+        PayloadSpec spec = new PayloadSpec();
+        spec.sizeDistribution = PayloadSizeDistribution.LOGNORMAL;
+        spec.sigma = 0.3;
+
+        // When
+        PayloadPool pool = PayloadPool.generate(spec.resolve(1024));
+
+        // Then
+        assertEquals(1024, pool.averageSize(), 50);
+    }
+
+    @Test
+    public void testCompressionRatio() {
+        // Given
+        PayloadSpec spec = new PayloadSpec();
+        spec.compressionRatio = 0.25;
+        spec.poolSize = 1;
+
+        // When
+        byte[] payload = PayloadPool.generate(spec.resolve(64 * 1024)).next();
+
+        // Then
+        Deflater deflater = new Deflater();
+        deflater.setInput(payload);
+        deflater.finish();
+        byte[] output = new byte[payload.length * 2];
+        int compressedLength = deflater.deflate(output);
+        double ratio = (double) compressedLength / payload.length;
+        assertTrue("Compression ratio " + ratio, ratio > 0.2 && ratio < 0.35);
+    }
+}
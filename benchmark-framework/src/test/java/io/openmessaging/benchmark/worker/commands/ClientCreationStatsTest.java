@@ -0,0 +1,63 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.worker.commands;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import io.openmessaging.benchmark.pojo.output.ClientCreationMetric;
+import java.nio.ByteBuffer;
+import org.HdrHistogram.Histogram;
+import org.junit.Test;
+
+public class ClientCreationStatsTest {
+
+    @Test
+    public void testMergesSerializedWorkerStats() {
+        // Given a worker that created two producers and a remote one that created a producer
+        ClientCreationStats local = new ClientCreationStats();
+        local.producerCreationLatency.recordValue(100_000);
+        local.producerCreationLatency.recordValue(300_000);
+        ClientCreationStats remote = new ClientCreationStats();
+        remote.producerCreationLatency.recordValue(2_000_000);
+        remote.producerCreationLatencyBytes = encode(remote.producerCreationLatency);
+        remote.consumerCreationLatencyBytes = encode(remote.consumerCreationLatency);
+        remote.isSerializedObject = true;
+
+        // When
+        ClientCreationMetric metric = ClientCreationMetric.fromStats(
+                new ClientCreationStats().plus(local).plus(remote));
+
+        // Then
+        assertEquals(3, metric.producerCount);
+        assertEquals(800, metric.producerCreationAvgMs, 1);
+        assertEquals(2000, metric.producerCreationMaxMs, 1);
+        assertEquals(0, metric.consumerCount);
+        assertNull(metric.consumerCreationAvgMs);
+    }
+
+    private static byte[] encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        histogram.encodeIntoCompressedByteBuffer(buffer);
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip();
+        buffer.get(bytes);
+        return bytes;
+    }
+}
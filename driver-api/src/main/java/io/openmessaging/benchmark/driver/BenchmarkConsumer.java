@@ -20,4 +20,17 @@ package io.openmessaging.benchmark.driver;
 
 public interface BenchmarkConsumer extends AutoCloseable {
 
+    /**
+     * Stop fetching messages from the broker until {@link #resume()} is called, so that a backlog can build up.
+     * Callbacks already in progress may still deliver messages.
+     */
+    default void pause() throws Exception {
+    }
+
+    /**
+     * Resume fetching messages from where the consumer stopped when it was paused.
+     */
+    default void resume() throws Exception {
+    }
+
 }
@@ -20,6 +20,7 @@ package io.openmessaging.benchmark.driver;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import org.apache.bookkeeper.stats.StatsLogger;
@@ -75,4 +76,23 @@ public interface BenchmarkDriver extends AutoCloseable {
      */
     CompletableFuture<BenchmarkConsumer> createConsumer(String topic, String subscriptionName,
             Optional<Integer> partition, ConsumerCallback consumerCallback);
+
+    /**
+     * Create a benchmark consumer that is also told which partitions of the topic it owns when the consumers of the
+     * subscription split them evenly between each other.
+     *
+     * Drivers can read <code>assignedPartitions</code> directly instead of relying on the group coordination of the
+     * messaging system. By default the assignment is ignored.
+     *
+     * @param topic
+     * @param subscriptionName
+     * @param partition          index of the consumer within the subscription
+     * @param assignedPartitions partitions of the topic assigned to this consumer, possibly empty
+     * @param consumerCallback
+     * @return
+     */
+    default CompletableFuture<BenchmarkConsumer> createConsumer(String topic, String subscriptionName,
+            Optional<Integer> partition, List<Integer> assignedPartitions, ConsumerCallback consumerCallback) {
+        return createConsumer(topic, subscriptionName, partition, consumerCallback);
+    }
 }
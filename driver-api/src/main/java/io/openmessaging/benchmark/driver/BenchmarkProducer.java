@@ -18,6 +18,7 @@
  */
 package io.openmessaging.benchmark.driver;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
@@ -34,4 +35,30 @@ public interface BenchmarkProducer extends AutoCloseable {
      */
     CompletableFuture<Integer> sendAsync(Optional<String> key, byte[] payload);
 
+    /**
+     * Publish a message with a key already encoded in UTF-8. Drivers that can send raw key bytes should override it
+     * to avoid decoding the key.
+     *
+     * @param key
+     *            the key associated with this message, or null
+     * @param payload
+     *            the message payload
+     * @return a future that will be triggered when the message is successfully published
+     */
+    default CompletableFuture<Integer> sendAsync(byte[] key, byte[] payload) {
+        return sendAsync(Optional.ofNullable(key).map(k -> new String(k, StandardCharsets.UTF_8)), payload);
+    }
+
+    /**
+     * Called when the worker stops publishing, drivers may use it to flush pending messages.
+     */
+    default void pause() throws Exception {
+    }
+
+    /**
+     * Called before the worker starts publishing again after {@link #pause()}.
+     */
+    default void resume() throws Exception {
+    }
+
 }
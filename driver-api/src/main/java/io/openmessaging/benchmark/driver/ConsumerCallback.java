@@ -31,4 +31,22 @@ public interface ConsumerCallback {
      *            the publish timestamp in milliseconds
      */
     void messageReceived(byte[] payload, long publishTimestamp);
+
+    /**
+     * Driver can invoke this method once for a whole batch of messages received together, instead of calling
+     * {@link #messageReceived(byte[], long)} for each of them. By default, calls {@link #messageReceived(byte[], long)}
+     * for each message with a zero-filled payload of its size, callbacks that only need the sizes should override it.
+     *
+     * @param payloadSizes
+     *            the size in bytes of each received message payload
+     * @param publishTimestamps
+     *            the publish timestamp of each received message, in the same unit as {@link #messageReceived}
+     * @param count
+     *            number of valid entries in the two arrays
+     */
+    default void messagesReceived(int[] payloadSizes, long[] publishTimestamps, int count) {
+        for (int i = 0; i < count; i++) {
+            messageReceived(new byte[payloadSizes[i]], publishTimestamps[i]);
+        }
+    }
 }
@@ -39,4 +39,8 @@ public class DriverConfiguration implements Serializable {
 
     public boolean reset = true;
     public short replicationFactor = 3;
+
+    // Number of topics deleted concurrently on reset, and how long to wait for the deletions to be confirmed
+    public int resetParallelism = 8;
+    public long resetTimeoutSeconds = 300;
 }
@@ -13,7 +13,17 @@ import io.openmessaging.benchmark.driver.NamespaceMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static io.openmessaging.benchmark.appconfig.adapter.EnvironmentName.Production;
 
@@ -87,6 +97,98 @@ public class EventHubAdministrator {
         }
     }
 
+  /**
+   * Deletes every event hub of the namespace whose name starts with the given prefix, running at most
+   * <code>parallelism</code> deletions at a time, and returns once the namespace no longer lists any of them. Does
+   * nothing when there is no prefix, rather than deleting every event hub of the namespace.
+   *
+   * @throws IOException if the deletions could not be confirmed within the timeout
+   */
+  public void deleteTopicsWithPrefix(String topicPrefix, int parallelism, long timeoutSeconds)
+      throws IOException {
+    if (topicPrefix == null || topicPrefix.isEmpty()) {
+      log.warn("No topic.name.prefix in the topic config, skipping the reset of namespace {}",
+          metadata.NamespaceName);
+      return;
+    }
+    long startTime = System.nanoTime();
+    long deadline = startTime + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+
+    List<String> topics = listTopicsWithPrefix(topicPrefix);
+    if (topics.isEmpty()) {
+      log.info("No existing entities with prefix {} to delete", topicPrefix);
+      return;
+    }
+    log.info("Deleting {} existing entities with prefix {} - {}", topics.size(), topicPrefix, topics);
+
+    ExecutorService executor =
+        Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, topics.size())));
+    try {
+      List<Future<?>> deletions = new ArrayList<>();
+      for (String topic : topics) {
+        deletions.add(
+            executor.submit(
+                () -> {
+                  manager
+                      .namespaces()
+                      .eventHubs()
+                      .deleteByName(metadata.ResourceGroup, metadata.NamespaceName, topic);
+                  log.info("Successfully deleted entity " + topic);
+                }));
+      }
+      for (Future<?> deletion : deletions) {
+        try {
+          deletion.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+          log.warn("Got error while deleting entity - {}", e.getCause().getMessage());
+        } catch (TimeoutException e) {
+          break;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // Deletions can fail or complete late, only trust what the namespace reports
+    List<String> remaining = listTopicsWithPrefix(topicPrefix);
+    while (!remaining.isEmpty()) {
+      if (System.nanoTime() >= deadline) {
+        throw new IOException(
+            "Timed out after " + timeoutSeconds + " s waiting for the deletion of " + remaining);
+      }
+      try {
+        Thread.sleep(2000);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      }
+      remaining = listTopicsWithPrefix(topicPrefix);
+    }
+
+    log.info(
+        "Deleted {} entities in {} ms",
+        topics.size(),
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+  }
+
+  private List<String> listTopicsWithPrefix(String topicPrefix) {
+    String prefix = topicPrefix.toLowerCase(Locale.ROOT);
+    List<String> topics = new ArrayList<>();
+    for (EventHub eventHub :
+        manager
+            .namespaces()
+            .eventHubs()
+            .listByNamespace(metadata.ResourceGroup, metadata.NamespaceName)) {
+      if (eventHub.name().toLowerCase(Locale.ROOT).startsWith(prefix)) {
+        topics.add(eventHub.name());
+      }
+    }
+    return topics;
+  }
+
   public void createConsumerGroupIfNotPresent(String topicName, String subscriptionName) {
     manager
         .consumerGroups()
@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.driver.eventhubs;
+
+import com.azure.messaging.eventhubs.EventHubClientBuilder;
+import com.azure.messaging.eventhubs.EventHubConsumerAsyncClient;
+import com.azure.messaging.eventhubs.EventHubProducerAsyncClient;
+import com.azure.messaging.eventhubs.EventHubProducerClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Spreads the Event Hubs clients of each topic over a fixed number of shared AMQP connections.
+ *
+ * <p>Clients built from the same {@link EventHubClientBuilder} with <code>shareConnection()</code> are multiplexed
+ * over a single connection, so the pool keeps <code>size</code> builders per topic and hands them out round-robin.
+ * With a size of 0 every client gets its own connection, as before.
+ */
+public class EventHubConnectionPool {
+
+    private final int size;
+    private final Function<String, EventHubClientBuilder> builderFactory;
+    private final Map<String, List<EventHubClientBuilder>> sharedBuilders = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> nextBuilder = new ConcurrentHashMap<>();
+
+    public EventHubConnectionPool(int size, Function<String, EventHubClientBuilder> builderFactory) {
+        this.size = size;
+        this.builderFactory = builderFactory;
+    }
+
+    public boolean isShared() {
+        return size > 0;
+    }
+
+    public EventHubProducerAsyncClient buildAsyncProducerClient(String topic) {
+        EventHubClientBuilder builder = nextBuilder(topic);
+        synchronized (builder) {
+            return builder.buildAsyncProducerClient();
+        }
+    }
+
+    public EventHubProducerClient buildProducerClient(String topic) {
+        EventHubClientBuilder builder = nextBuilder(topic);
+        synchronized (builder) {
+            return builder.buildProducerClient();
+        }
+    }
+
+    public EventHubConsumerAsyncClient buildAsyncConsumerClient(String topic) {
+        EventHubClientBuilder builder = nextBuilder(topic);
+        synchronized (builder) {
+            return builder.buildAsyncConsumerClient();
+        }
+    }
+
+    private EventHubClientBuilder nextBuilder(String topic) {
+        if (!isShared()) {
+            return builderFactory.apply(topic);
+        }
+
+        List<EventHubClientBuilder> builders = sharedBuilders.computeIfAbsent(topic, t -> {
+            List<EventHubClientBuilder> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(builderFactory.apply(t).shareConnection());
+            }
+            return list;
+        });
+        int index = nextBuilder.computeIfAbsent(topic, t -> new AtomicInteger()).getAndIncrement();
+        return builders.get(Math.floorMod(index, size));
+    }
+}
@@ -18,38 +18,187 @@
  */
 package io.openmessaging.benchmark.driver.eventhubs;
 
+import com.azure.messaging.eventhubs.EventData;
 import com.azure.messaging.eventhubs.EventProcessorClient;
-import com.azure.messaging.eventhubs.models.EventContext;
+import com.azure.messaging.eventhubs.EventProcessorClientBuilder;
+import com.azure.messaging.eventhubs.models.EventBatchContext;
+import com.azure.messaging.eventhubs.models.EventPosition;
 import io.openmessaging.benchmark.driver.BenchmarkConsumer;
 import io.openmessaging.benchmark.driver.ConsumerCallback;
+import org.apache.bookkeeper.stats.Counter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class EventHubsBenchmarkConsumer implements BenchmarkConsumer {
     private static final Logger log = LoggerFactory.getLogger(EventHubsBenchmarkConsumer.class);
 
-    private final EventProcessorClient eventProcessorClient;
+    public static final String PRODUCER_TIMESTAMP_PROPERTY = "producer_timestamp";
+
+    private static final Duration PAUSE_CHECKPOINT_TIMEOUT = Duration.ofSeconds(30);
+
+    private final ConsumerCallback consumerCallback;
+    private final long checkpointInterval;
+    private final Counter checkpointCounter;
+    private final Counter checkpointErrorCounter;
+    // Last batch delivered for every partition, checkpointed when pausing so that resuming doesn't skip events
+    private final Map<String, EventBatchContext> lastBatches = new ConcurrentHashMap<>();
+    private final EventProcessorClientBuilder eventProcessorClientBuilder;
+    private final Map<String, EventPosition> resumePartitionEventPositions = new HashMap<>();
+    private volatile EventProcessorClient eventProcessorClient;
     private final ExecutorService executor;
     private final Future<?> consumerTask;
+    // Guards paused against the batch callbacks, so that no batch is delivered once pause() took its checkpoints.
+    // Partitions deliver concurrently under the read lock, pausing and resuming take the write lock
+    private final ReadWriteLock deliveryLock = new ReentrantReadWriteLock();
+    private volatile boolean paused = false;
 
-    public EventHubsBenchmarkConsumer(EventProcessorClient eventProcessorClient) {
-        this.eventProcessorClient = eventProcessorClient;
+    public EventHubsBenchmarkConsumer(EventProcessorClientBuilder eventProcessorClientBuilder,
+                                      Map<String, EventPosition> initialPartitionEventPositions,
+                                      ConsumerCallback consumerCallback, int receiveBatchSize,
+                                      Duration receiveBatchWaitTime, long checkpointInterval,
+                                      Counter checkpointCounter, Counter checkpointErrorCounter) {
+        this.consumerCallback = consumerCallback;
+        this.checkpointInterval = checkpointInterval;
+        this.checkpointCounter = checkpointCounter;
+        this.checkpointErrorCounter = checkpointErrorCounter;
+        this.eventProcessorClientBuilder = eventProcessorClientBuilder
+                .processEventBatch(this::processEventBatch, receiveBatchSize, receiveBatchWaitTime);
+        // Partitions without checkpoint resume from the earliest event rather than from the start position, which
+        // defaults to latest and would skip the events produced while paused
+        for (String partitionId : initialPartitionEventPositions.keySet()) {
+            resumePartitionEventPositions.put(partitionId, EventPosition.earliest());
+        }
+        this.eventProcessorClient = eventProcessorClientBuilder
+                .initialPartitionEventPosition(initialPartitionEventPositions)
+                .buildEventProcessorClient();
         this.executor = Executors.newSingleThreadExecutor();
         this.consumerTask = this.executor.submit(eventProcessorClient::start);
     }
 
-    public static void processEvent(EventContext eventContext, ConsumerCallback consumerCallback) {
-        consumerCallback.messageReceived(eventContext.getEventData().getBody(),
-                TimeUnit.MILLISECONDS.toNanos(Long.parseLong(eventContext.getEventData().getProperties().get("producer_timestamp").toString())));
-        if (eventContext.getEventData().getSequenceNumber() % 100 == 0) {
-            eventContext.updateCheckpointAsync()
-                    .doOnError(throwable -> log.error("Got error while updating checkpoint.", throwable));
+    /**
+     * Hands over all the events of the batch to the worker in a single call and then checkpoints the last event of
+     * the batch if the batch crossed a multiple of {@code checkpointInterval} sequence numbers. Empty batches are
+     * delivered by the processor when the max wait time elapses and are ignored.
+     */
+    private void processEventBatch(EventBatchContext batchContext) {
+        List<EventData> events = batchContext.getEvents();
+        if (events.isEmpty()) {
+            return;
+        }
+        deliveryLock.readLock().lock();
+        try {
+            // Batches received while pausing are dropped, they are received again from the checkpoint on resume
+            if (paused) {
+                return;
+            }
+            deliverEvents(events, consumerCallback);
+            lastBatches.put(batchContext.getPartitionContext().getPartitionId(), batchContext);
+        } finally {
+            deliveryLock.readLock().unlock();
+        }
+
+        int count = events.size();
+        if (checkpointInterval <= 0) {
+            return;
+        }
+        long firstSequenceNumber = events.get(0).getSequenceNumber();
+        long lastSequenceNumber = events.get(count - 1).getSequenceNumber();
+        if (Math.floorDiv(lastSequenceNumber, checkpointInterval)
+                == Math.floorDiv(firstSequenceNumber - 1, checkpointInterval)) {
+            return;
+        }
+
+        batchContext.updateCheckpointAsync().subscribe(
+                unused -> { },
+                throwable -> {
+                    checkpointErrorCounter.inc();
+                    log.error("Got error while updating checkpoint for partition {}",
+                            batchContext.getPartitionContext().getPartitionId(), throwable);
+                },
+                checkpointCounter::inc);
+    }
+
+    /**
+     * Hands over a non-empty list of events to the worker in a single call
+     */
+    static void deliverEvents(List<EventData> events, ConsumerCallback consumerCallback) {
+        int count = events.size();
+        int[] payloadSizes = new int[count];
+        long[] publishTimestamps = new long[count];
+        for (int i = 0; i < count; i++) {
+            EventData eventData = events.get(i);
+            payloadSizes[i] = eventData.getBody().length;
+            publishTimestamps[i] = TimeUnit.MILLISECONDS.toNanos(getProducerTimestamp(eventData));
+        }
+        consumerCallback.messagesReceived(payloadSizes, publishTimestamps, count);
+    }
+
+    private static long getProducerTimestamp(EventData eventData) {
+        // The producer sets the property as a long, which the AMQP layer hands back as a Long
+        Object timestamp = eventData.getProperties().get(PRODUCER_TIMESTAMP_PROPERTY);
+        if (timestamp instanceof Number) {
+            return ((Number) timestamp).longValue();
+        }
+        return Long.parseLong(String.valueOf(timestamp));
+    }
+
+    /**
+     * Checkpoints the last batch delivered on every partition regardless of the checkpoint interval, while the
+     * processor still owns the partitions, and then stops the processor so that {@link #resume()} continues exactly
+     * where the worker stopped. The processor is stopped even if checkpointing fails, resuming then replays the
+     * events since the previous checkpoints. Partitions that delivered nothing yet have no checkpoint and resume from
+     * the earliest event.
+     */
+    @Override
+    public synchronized void pause() {
+        if (paused) {
+            return;
+        }
+        // Waits for the batches being delivered, the later ones see paused and are dropped
+        deliveryLock.writeLock().lock();
+        try {
+            paused = true;
+        } finally {
+            deliveryLock.writeLock().unlock();
+        }
+        try {
+            Flux.fromIterable(lastBatches.values())
+                    .flatMap(EventBatchContext::updateCheckpointAsync)
+                    .blockLast(PAUSE_CHECKPOINT_TIMEOUT);
+        } catch (RuntimeException e) {
+            checkpointErrorCounter.inc();
+            log.error("Failed to checkpoint before pausing, resuming will replay events", e);
+        } finally {
+            lastBatches.clear();
+            eventProcessorClient.stop();
+        }
+        log.info("Paused EventHub processor");
+    }
+
+    @Override
+    public synchronized void resume() {
+        if (!paused) {
+            return;
         }
+        paused = false;
+        eventProcessorClient = eventProcessorClientBuilder
+                .initialPartitionEventPosition(resumePartitionEventPositions)
+                .buildEventProcessorClient();
+        eventProcessorClient.start();
+        log.info("Resumed EventHub processor");
     }
 
     @Override
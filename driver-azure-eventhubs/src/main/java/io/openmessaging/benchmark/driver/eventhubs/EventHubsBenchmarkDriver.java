@@ -22,14 +22,15 @@ import com.azure.core.credential.TokenCredential;
 import com.azure.messaging.eventhubs.*;
 import com.azure.messaging.eventhubs.checkpointstore.blob.BlobCheckpointStore;
 import com.azure.messaging.eventhubs.implementation.EventHubSharedKeyCredential;
-import com.azure.storage.blob.BlobContainerAsyncClient;
-
-import com.azure.resourcemanager.eventhubs.models.EventHub;
+import com.azure.messaging.eventhubs.models.EventPosition;
 
 import io.openmessaging.benchmark.appconfig.adapter.ConfigProvider;
 import io.openmessaging.benchmark.appconfig.adapter.ConfigurationKey;
 import io.openmessaging.benchmark.credential.adapter.CredentialProvider;
 import io.openmessaging.benchmark.driver.*;
+import io.openmessaging.benchmark.driver.eventhubs.checkpoint.CheckpointStoreType;
+import io.openmessaging.benchmark.driver.eventhubs.checkpoint.FileCheckpointStore;
+import io.openmessaging.benchmark.driver.eventhubs.checkpoint.InMemoryCheckpointStore;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -39,10 +40,15 @@ import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import java.io.File;
 import java.io.IOException;
 import java.io.StringReader;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import io.openmessaging.benchmark.storage.adapter.StorageAdapter;
+import org.apache.bookkeeper.stats.Counter;
+import org.apache.bookkeeper.stats.StatsLogger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,19 +56,51 @@ public class EventHubsBenchmarkDriver implements BenchmarkDriver {
 
     private static final Logger log = LoggerFactory.getLogger(EventHubsBenchmarkDriver.class);
 
+    // Maximum number of events handed to the worker in one callback, and the maximum time the processor
+    // waits to fill a batch before delivering what it has received so far.
+    private static final String RECEIVE_BATCH_SIZE = "receive.batch.size";
+    private static final String RECEIVE_BATCH_WAIT_MS = "receive.batch.wait.ms";
+
+    // Checkpoint store to use (memory, file or blob), where the file store keeps its checkpoints, how many events
+    // to consume between two checkpoints (0 disables checkpointing), and where to start reading partitions that have
+    // no checkpoint yet (latest or earliest).
+    private static final String CHECKPOINT_STORE = "checkpoint.store";
+    private static final String CHECKPOINT_DIRECTORY = "checkpoint.directory";
+    private static final String CHECKPOINT_INTERVAL_EVENTS = "checkpoint.interval.events";
+    private static final String START_POSITION = "start.position";
+
+    // "processor" runs an EventProcessorClient per consumer, "partition" reads the partitions assigned by the
+    // benchmark directly, without ownership and load-balancing.
+    private static final String CONSUMER_MODE = "consumer.mode";
+    private static final String PARTITION_CONSUMER_MODE = "partition";
+
+    // Number of AMQP connections shared by the producers and partition consumers of each topic, assigned
+    // round-robin. 0 keeps one connection per client. Processor consumers always open their own connection.
+    private static final String CONNECTION_POOL_SIZE = "connection.pool.size";
+
     private String topicPrefix;
     protected String namespace;
     protected TokenCredential credential;
     protected Properties producerProperties;
+    protected Properties consumerProperties;
 
     protected final List<BenchmarkProducer> producers = Collections.synchronizedList(new ArrayList<>());
     private final List<BenchmarkConsumer> consumers = Collections.synchronizedList(new ArrayList<>());
-    private BlobContainerAsyncClient blobContainerAsyncClient;
+    private final Map<String, Integer> topicPartitions = new ConcurrentHashMap<>();
+    private CheckpointStore checkpointStore;
     private EventHubAdministrator eventHubAdministrator;
     protected ConfigProvider configProvider;
+    protected EventHubConnectionPool connectionPool;
+    private int receiveBatchSize;
+    private Duration receiveBatchWaitTime;
+    private long checkpointInterval;
+    private EventPosition startPosition;
+    private boolean partitionReceiverMode;
+    private Counter checkpointCounter;
+    private Counter checkpointErrorCounter;
 
     @Override
-    public void initialize(File configurationFile, org.apache.bookkeeper.stats.StatsLogger statsLogger) throws IOException {
+    public void initialize(File configurationFile, StatsLogger statsLogger) throws IOException {
         configProvider = ConfigProvider.getInstance();
         CredentialProvider credentialProvider = CredentialProvider.getInstance();
 
@@ -79,28 +117,39 @@ public class EventHubsBenchmarkDriver implements BenchmarkDriver {
         producerProperties.putIfAbsent("batch.size", "1048576");
         producerProperties.putIfAbsent("batch.count", "1");
 
+        consumerProperties = new Properties();
+        consumerProperties.putAll(commonProperties);
+        consumerProperties.load(new StringReader(driverConfiguration.consumerConfig));
+        consumerProperties.putIfAbsent(RECEIVE_BATCH_SIZE, "100");
+        consumerProperties.putIfAbsent(RECEIVE_BATCH_WAIT_MS, "50");
+        receiveBatchSize = Integer.parseInt(consumerProperties.getProperty(RECEIVE_BATCH_SIZE));
+        receiveBatchWaitTime = Duration.ofMillis(Long.parseLong(consumerProperties.getProperty(RECEIVE_BATCH_WAIT_MS)));
+        consumerProperties.putIfAbsent(CHECKPOINT_STORE, CheckpointStoreType.BLOB.name());
+        consumerProperties.putIfAbsent(CHECKPOINT_INTERVAL_EVENTS, "1");
+        consumerProperties.putIfAbsent(START_POSITION, "latest");
+        checkpointInterval = Long.parseLong(consumerProperties.getProperty(CHECKPOINT_INTERVAL_EVENTS));
+        startPosition = parseStartPosition(consumerProperties.getProperty(START_POSITION));
+        partitionReceiverMode = PARTITION_CONSUMER_MODE.equalsIgnoreCase(
+                consumerProperties.getProperty(CONSUMER_MODE, "processor").trim());
+
+        StatsLogger consumerStatsLogger = statsLogger.scope("eventhubs").scope("consumer");
+        checkpointCounter = consumerStatsLogger.getCounter("checkpoints");
+        checkpointErrorCounter = consumerStatsLogger.getCounter("checkpoint_errors");
+
         Properties topicProperties = new Properties();
         topicProperties.load(new StringReader(driverConfiguration.topicConfig));
 
         topicPrefix = topicProperties.getProperty("topic.name.prefix");
         namespace = driverConfiguration.namespaceMetadata.NamespaceName;
 
-        blobContainerAsyncClient = StorageAdapter.GetAsyncStorageClient(configProvider.getConfigurationValue(ConfigurationKey.StorageAccountName),
-                configProvider.getConfigurationValue(ConfigurationKey.StorageContainerName));
+        if (!partitionReceiverMode) {
+            checkpointStore = createCheckpointStore(CheckpointStoreType.fromString(consumerProperties.getProperty(CHECKPOINT_STORE)));
+        }
         eventHubAdministrator = new EventHubAdministrator(driverConfiguration.namespaceMetadata);
 
         if (driverConfiguration.reset) {
-            String resourceGroup = driverConfiguration.namespaceMetadata.ResourceGroup;
-            log.info("Deleting existing entities");
-            for (EventHub eh : eventHubAdministrator.getManager().namespaces().eventHubs().listByNamespace(resourceGroup, namespace)) {
-                new Thread(new Runnable() {
-                    @Override
-                    public void run() {
-                        eventHubAdministrator.getManager().namespaces().eventHubs().deleteByName(resourceGroup, namespace, eh.name());
-                        log.info("Successfully deleted entity "+ eh.name());
-                    }
-                }).start();
-            }
+            eventHubAdministrator.deleteTopicsWithPrefix(topicPrefix, driverConfiguration.resetParallelism,
+                    driverConfiguration.resetTimeoutSeconds);
         }
 
         if(driverConfiguration.namespaceMetadata.SASKeyValue == null) {
@@ -108,6 +157,52 @@ public class EventHubsBenchmarkDriver implements BenchmarkDriver {
         }
 
         credential =  new EventHubSharedKeyCredential(driverConfiguration.namespaceMetadata.SASKeyName, driverConfiguration.namespaceMetadata.SASKeyValue);
+
+        int connectionPoolSize = Integer.parseInt(commonProperties.getProperty(CONNECTION_POOL_SIZE, "0").trim());
+        if (connectionPoolSize > 0) {
+            log.info("Sharing {} AMQP connections per topic between producers and consumers", connectionPoolSize);
+        }
+        connectionPool = new EventHubConnectionPool(connectionPoolSize, topic -> new EventHubClientBuilder()
+                .credential(namespace + configProvider.getConfigurationValue(ConfigurationKey.FQDNSuffix), topic, credential)
+                .consumerGroup(EventHubClientBuilder.DEFAULT_CONSUMER_GROUP_NAME));
+    }
+
+    private CheckpointStore createCheckpointStore(CheckpointStoreType checkpointStoreType) throws IOException {
+        log.info("Using {} checkpoint store with a checkpoint every {} events", checkpointStoreType, checkpointInterval);
+        switch (checkpointStoreType) {
+            case MEMORY:
+                return new InMemoryCheckpointStore();
+            case FILE:
+                return new FileCheckpointStore(Paths.get(consumerProperties.getProperty(CHECKPOINT_DIRECTORY,
+                        Paths.get(System.getProperty("java.io.tmpdir"), "eventhubs-checkpoints").toString())));
+            case BLOB:
+            default:
+                return new BlobCheckpointStore(StorageAdapter.GetAsyncStorageClient(
+                        configProvider.getConfigurationValue(ConfigurationKey.StorageAccountName),
+                        configProvider.getConfigurationValue(ConfigurationKey.StorageContainerName)));
+        }
+    }
+
+    private static EventPosition parseStartPosition(String position) {
+        switch (position.trim().toLowerCase(Locale.ROOT)) {
+            case "earliest":
+                return EventPosition.earliest();
+            case "latest":
+                return EventPosition.latest();
+            default:
+                throw new IllegalArgumentException("Unknown " + START_POSITION + " " + position);
+        }
+    }
+
+    /**
+     * Starting position for every partition of the topic, used by the processor for partitions without checkpoint
+     */
+    private Map<String, EventPosition> initialPartitionEventPositions(String topic) {
+        Map<String, EventPosition> positions = new HashMap<>();
+        for (int i = 0; i < topicPartitions.getOrDefault(topic, 0); i++) {
+            positions.put(String.valueOf(i), startPosition);
+        }
+        return positions;
     }
 
     @Override
@@ -117,20 +212,19 @@ public class EventHubsBenchmarkDriver implements BenchmarkDriver {
 
     @Override
     public CompletableFuture<Void> createTopic(String topic, int partitions) {
+        topicPartitions.put(topic, partitions);
         return CompletableFuture.runAsync(() -> eventHubAdministrator.createTopic(topic, partitions));
     }
 
     @Override
     public CompletableFuture<Void> notifyTopicCreation(String topic, int partitions) {
-        //NO-OP
+        topicPartitions.put(topic, partitions);
         return CompletableFuture.completedFuture(null);
     }
 
     @Override
     public CompletableFuture<BenchmarkProducer> createProducer(String topic) {
-        EventHubProducerAsyncClient ehProducerClient = new EventHubClientBuilder()
-                .credential(namespace + configProvider.getConfigurationValue(ConfigurationKey.FQDNSuffix), topic, credential)
-                .buildAsyncProducerClient();
+        EventHubProducerAsyncClient ehProducerClient = connectionPool.buildAsyncProducerClient(topic);
         BenchmarkProducer benchmarkProducer = new EventHubsBenchmarkProducer(ehProducerClient, producerProperties);
         try {
             producers.add(benchmarkProducer);
@@ -148,20 +242,19 @@ public class EventHubsBenchmarkDriver implements BenchmarkDriver {
                                                                Optional<Integer> partition,
                                                                ConsumerCallback consumerCallback) {
 
-        EventProcessorClient eventProcessorClient = new EventProcessorClientBuilder()
+        EventProcessorClientBuilder eventProcessorClientBuilder = new EventProcessorClientBuilder()
                 .credential(namespace + configProvider.getConfigurationValue(ConfigurationKey.FQDNSuffix), topic, credential)
                 .consumerGroup(EventHubClientBuilder.DEFAULT_CONSUMER_GROUP_NAME)
-                .processEvent(eventContext -> EventHubsBenchmarkConsumer.processEvent(eventContext, consumerCallback))
                 .processError(errorContext -> log.error("exception occur while consuming message " +  errorContext.getThrowable().getMessage()))
-                .checkpointStore(new BlobCheckpointStore(blobContainerAsyncClient))
-                .buildEventProcessorClient();
+                .checkpointStore(checkpointStore);
 
         try {
-            BenchmarkConsumer benchmarkConsumer = new EventHubsBenchmarkConsumer(eventProcessorClient);
+            BenchmarkConsumer benchmarkConsumer = new EventHubsBenchmarkConsumer(eventProcessorClientBuilder,
+                    initialPartitionEventPositions(topic), consumerCallback, receiveBatchSize, receiveBatchWaitTime, checkpointInterval, checkpointCounter,
+                    checkpointErrorCounter);
             consumers.add(benchmarkConsumer);
             return CompletableFuture.completedFuture(benchmarkConsumer);
         } catch (Throwable t) {
-            eventProcessorClient.stop();
             CompletableFuture<BenchmarkConsumer> future = new CompletableFuture<>();
             future.completeExceptionally(t);
             return future;
@@ -169,6 +262,34 @@ public class EventHubsBenchmarkDriver implements BenchmarkDriver {
     }
 
 
+    @Override
+    public CompletableFuture<BenchmarkConsumer> createConsumer(String topic, String subscriptionName,
+                                                               Optional<Integer> partition,
+                                                               List<Integer> assignedPartitions,
+                                                               ConsumerCallback consumerCallback) {
+        if (!partitionReceiverMode) {
+            return createConsumer(topic, subscriptionName, partition, consumerCallback);
+        }
+
+        // With more consumers than partitions some get none, they stay idle like a Kafka consumer with an empty
+        // assignment rather than reading a partition of another consumer
+        List<Integer> partitions = assignedPartitions == null ? Collections.emptyList() : assignedPartitions;
+
+        EventHubConsumerAsyncClient consumerClient = connectionPool.buildAsyncConsumerClient(topic);
+
+        try {
+            BenchmarkConsumer benchmarkConsumer = new EventHubsPartitionReceiverConsumer(consumerClient, partitions,
+                    startPosition, receiveBatchSize, receiveBatchWaitTime, consumerCallback);
+            consumers.add(benchmarkConsumer);
+            return CompletableFuture.completedFuture(benchmarkConsumer);
+        } catch (Throwable t) {
+            consumerClient.close();
+            CompletableFuture<BenchmarkConsumer> future = new CompletableFuture<>();
+            future.completeExceptionally(t);
+            return future;
+        }
+    }
+
     @Override
     public void close() throws Exception {
         for (BenchmarkProducer producer : producers) {
@@ -26,17 +26,31 @@ import io.openmessaging.benchmark.driver.BenchmarkProducer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
 
+/**
+ * Producer batching events on the client. Keyless events share a batch the service spreads across the partitions,
+ * keyed events are hashed to a partition and batched per partition, so that a skewed key distribution loads the
+ * partitions unevenly like it does on a keyed Kafka topic.
+ */
 public class EventHubsBenchmarkProducer implements BenchmarkProducer {
     private static final Logger log = LoggerFactory.getLogger(EventHubsBenchmarkProducer.class);
 
     private final EventHubProducerAsyncClient producerClient;
     private final int batchCount;
     private final int batchSize;
+    private final List<String> partitionIds;
     private EventDataBatch eventDataBatch;
+    // Batches of the keyed events and their options by partition id
+    private final Map<String, EventDataBatch> partitionBatches = new HashMap<>();
+    private final Map<String, CreateBatchOptions> partitionBatchOptions = new HashMap<>();
     private boolean isProducerClosed = false;
     private CreateBatchOptions batchOptions;
 
@@ -45,38 +59,74 @@ public class EventHubsBenchmarkProducer implements BenchmarkProducer {
         this.batchCount = Integer.parseInt(producerProperties.getProperty("batch.count"));
         this.batchSize = Integer.parseInt(producerProperties.getProperty("batch.size"));
         batchOptions  = new CreateBatchOptions().setMaximumSizeInBytes(batchSize);
+        this.partitionIds = producerClient.getPartitionIds().collectList().block();
+        for (String partitionId : partitionIds) {
+            partitionBatchOptions.put(partitionId,
+                    new CreateBatchOptions().setMaximumSizeInBytes(batchSize).setPartitionId(partitionId));
+        }
         eventDataBatch = producerClient.createBatch(batchOptions).block();
     }
 
+    /**
+     * Partition id the key is sent to, the same key always maps to the same partition
+     */
+    public static String partitionIdOf(byte[] key, List<String> partitionIds) {
+        return partitionIds.get(Math.floorMod(Arrays.hashCode(key), partitionIds.size()));
+    }
+
     @Override
     public CompletableFuture<Integer> sendAsync(Optional<String> key, byte[] payload) {
+        return sendAsync(key.map(k -> k.getBytes(StandardCharsets.UTF_8)).orElse(null), payload);
+    }
 
+    @Override
+    public CompletableFuture<Integer> sendAsync(byte[] key, byte[] payload) {
+        if (key == null) {
+            CompletableFuture<Integer> future = new CompletableFuture<>();
+            eventDataBatch = send(eventDataBatch, batchOptions, payload, future);
+            return future;
+        }
+        String partitionId = partitionIdOf(key, partitionIds);
+        CreateBatchOptions options = partitionBatchOptions.get(partitionId);
+        EventDataBatch batch = partitionBatches.get(partitionId);
+        if (batch == null) {
+            batch = producerClient.createBatch(options).block();
+        }
         CompletableFuture<Integer> future = new CompletableFuture<>();
+        partitionBatches.put(partitionId, send(batch, options, payload, future));
+        return future;
+    }
+
+    /**
+     * Adds the event to the batch and sends the batch once full, returns the batch the next event is added to
+     */
+    private EventDataBatch send(EventDataBatch batch, CreateBatchOptions options, byte[] payload,
+                                CompletableFuture<Integer> future) {
         if(isProducerClosed){
             future.completeExceptionally(new RuntimeException("Producer Client is closed. Failing the send call"));
-            return future;
+            return batch;
         }
 
         EventData event = new EventData(payload);
-        event.getProperties().putIfAbsent("producer_timestamp", System.currentTimeMillis());
-        boolean addSuccessful = eventDataBatch.tryAdd(event);
+        event.getProperties().putIfAbsent(EventHubsBenchmarkConsumer.PRODUCER_TIMESTAMP_PROPERTY, System.currentTimeMillis());
+        boolean addSuccessful = batch.tryAdd(event);
 
         if(!addSuccessful){
-            final int messagesToBeSent = eventDataBatch.getCount();
+            final int messagesToBeSent = batch.getCount();
             //EventDataBatch is full. Send the existing batch and then add the current data.
-            producerClient.send(eventDataBatch).subscribe(unused ->{}, future::completeExceptionally, () -> future.complete(messagesToBeSent));
-            eventDataBatch = producerClient.createBatch(batchOptions).block();
-            eventDataBatch.tryAdd(event);
+            producerClient.send(batch).subscribe(unused ->{}, future::completeExceptionally, () -> future.complete(messagesToBeSent));
+            batch = producerClient.createBatch(options).block();
+            batch.tryAdd(event);
 
         } else{
-            if(eventDataBatch.getCount() >= batchCount){
-                producerClient.send(eventDataBatch).subscribe(unused ->{}, future::completeExceptionally, () -> future.complete(batchCount));
-                eventDataBatch = producerClient.createBatch(batchOptions).block();
+            if(batch.getCount() >= batchCount){
+                producerClient.send(batch).subscribe(unused ->{}, future::completeExceptionally, () -> future.complete(batchCount));
+                batch = producerClient.createBatch(options).block();
             } else{
                 future.complete(0);
             }
         }
-        return future;
+        return batch;
     }
 
     @Override
@@ -87,6 +137,12 @@ public class EventHubsBenchmarkProducer implements BenchmarkProducer {
                 producerClient.send(eventDataBatch).block();
                 eventDataBatch = producerClient.createBatch().block();
             }
+            for (EventDataBatch batch : partitionBatches.values()) {
+                if (batch.getCount() > 0) {
+                    producerClient.send(batch).block();
+                }
+            }
+            partitionBatches.clear();
             producerClient.close();
             isProducerClosed = true;
             log.info("Successfully closed EH Producer");
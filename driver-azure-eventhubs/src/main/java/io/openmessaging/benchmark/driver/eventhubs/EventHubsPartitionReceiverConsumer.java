@@ -0,0 +1,147 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.driver.eventhubs;
+
+import com.azure.messaging.eventhubs.EventData;
+import com.azure.messaging.eventhubs.EventHubConsumerAsyncClient;
+import com.azure.messaging.eventhubs.PartitionProperties;
+import com.azure.messaging.eventhubs.models.EventPosition;
+import com.azure.messaging.eventhubs.models.PartitionEvent;
+import io.openmessaging.benchmark.driver.BenchmarkConsumer;
+import io.openmessaging.benchmark.driver.ConsumerCallback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Consumer reading an explicit set of partitions through {@link EventHubConsumerAsyncClient#receiveFromPartition},
+ * without partition ownership, load-balancing or checkpointing.
+ */
+public class EventHubsPartitionReceiverConsumer implements BenchmarkConsumer {
+    private static final Logger log = LoggerFactory.getLogger(EventHubsPartitionReceiverConsumer.class);
+
+    private static final Duration PARTITION_PROPERTIES_TIMEOUT = Duration.ofSeconds(30);
+
+    private final EventHubConsumerAsyncClient consumerClient;
+    private final List<Integer> partitions;
+    private final EventPosition startPosition;
+    private final int batchSize;
+    private final Duration batchWaitTime;
+    private final ConsumerCallback consumerCallback;
+    // Sequence number of the last event handed to the worker for every partition, where receivers restart on resume
+    private final Map<Integer, Long> lastSequenceNumbers = new ConcurrentHashMap<>();
+    private final List<Disposable> receivers = new ArrayList<>();
+    // Once paused, partitions without a sequence number restart from the earliest event instead of the start position
+    private boolean pausedOnce = false;
+
+    public EventHubsPartitionReceiverConsumer(EventHubConsumerAsyncClient consumerClient, List<Integer> partitions,
+                                              EventPosition startPosition, int batchSize, Duration batchWaitTime,
+                                              ConsumerCallback consumerCallback) {
+        this.consumerClient = consumerClient;
+        this.partitions = partitions;
+        this.startPosition = startPosition;
+        this.batchSize = batchSize;
+        this.batchWaitTime = batchWaitTime;
+        this.consumerCallback = consumerCallback;
+        startReceivers();
+        if (partitions.isEmpty()) {
+            log.info("No partition of {} assigned, consumer stays idle", consumerClient.getEventHubName());
+        } else {
+            log.info("Receiving from partitions {} of {}", partitions, consumerClient.getEventHubName());
+        }
+    }
+
+    private void startReceivers() {
+        for (Integer partition : partitions) {
+            Long lastSequenceNumber = lastSequenceNumbers.get(partition);
+            EventPosition position;
+            if (lastSequenceNumber != null) {
+                position = EventPosition.fromSequenceNumber(lastSequenceNumber, false);
+            } else {
+                position = pausedOnce ? EventPosition.earliest() : startPosition;
+            }
+            receivers.add(consumerClient.receiveFromPartition(String.valueOf(partition), position)
+                    .map(PartitionEvent::getData)
+                    .bufferTimeout(batchSize, batchWaitTime)
+                    .subscribe(events -> deliverEvents(partition, events),
+                            throwable -> log.error("Receiver of partition {} of {} stopped", partition,
+                                    consumerClient.getEventHubName(), throwable)));
+        }
+    }
+
+    private void deliverEvents(Integer partition, List<EventData> events) {
+        EventHubsBenchmarkConsumer.deliverEvents(events, consumerCallback);
+        lastSequenceNumbers.put(partition, events.get(events.size() - 1).getSequenceNumber());
+    }
+
+    /**
+     * Closes the receive links, events buffered but not yet delivered are received again on {@link #resume()}.
+     * Partitions that delivered nothing yet resume after the last event enqueued when pausing, so that the events
+     * produced while paused are not skipped when the start position is latest.
+     */
+    @Override
+    public synchronized void pause() {
+        if (receivers.isEmpty() && pausedOnce) {
+            return;
+        }
+        receivers.forEach(Disposable::dispose);
+        receivers.clear();
+        pausedOnce = true;
+        for (Integer partition : partitions) {
+            if (!lastSequenceNumbers.containsKey(partition)) {
+                recordLastEnqueuedSequenceNumber(partition);
+            }
+        }
+        log.info("Paused receiving from partitions {} of {}", partitions, consumerClient.getEventHubName());
+    }
+
+    private void recordLastEnqueuedSequenceNumber(Integer partition) {
+        try {
+            PartitionProperties properties = consumerClient.getPartitionProperties(String.valueOf(partition))
+                    .block(PARTITION_PROPERTIES_TIMEOUT);
+            if (properties != null && !properties.isEmpty()) {
+                lastSequenceNumbers.put(partition, properties.getLastEnqueuedSequenceNumber());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to get the last enqueued event of partition {} of {}, resuming from the earliest event",
+                    partition, consumerClient.getEventHubName(), e);
+        }
+    }
+
+    @Override
+    public synchronized void resume() {
+        if (receivers.isEmpty()) {
+            startReceivers();
+            log.info("Resumed receiving from partitions {} of {}", partitions, consumerClient.getEventHubName());
+        }
+    }
+
+    @Override
+    public synchronized void close() throws Exception {
+        log.warn("Shutting down EventHub partition receivers gracefully");
+        receivers.forEach(Disposable::dispose);
+        consumerClient.close();
+    }
+}
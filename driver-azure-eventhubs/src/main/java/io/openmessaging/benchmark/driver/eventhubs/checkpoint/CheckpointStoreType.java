@@ -0,0 +1,46 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.driver.eventhubs.checkpoint;
+
+import java.util.Locale;
+
+/**
+ * Where the Event Hubs processor keeps partition ownership and checkpoints
+ */
+public enum CheckpointStoreType {
+    /**
+     * Ownership and checkpoints live in the worker heap. Processors of the same worker balance partitions between
+     * them, but processors running on different workers do not see each other.
+     */
+    MEMORY,
+
+    /**
+     * Same as {@link #MEMORY}, with checkpoints also written to a local directory so that they survive a restart
+     */
+    FILE,
+
+    /**
+     * Ownership and checkpoints are kept in the Azure Storage container configured in App Configuration
+     */
+    BLOB;
+
+    public static CheckpointStoreType fromString(String value) {
+        return CheckpointStoreType.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
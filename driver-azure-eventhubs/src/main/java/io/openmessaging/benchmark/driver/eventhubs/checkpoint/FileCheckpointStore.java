@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.driver.eventhubs.checkpoint;
+
+import com.azure.messaging.eventhubs.models.Checkpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * {@link InMemoryCheckpointStore} that also writes every checkpoint to a local directory, one file per partition, and
+ * loads them back when created. Ownership is still kept in memory only.
+ */
+public class FileCheckpointStore extends InMemoryCheckpointStore {
+    private static final Logger log = LoggerFactory.getLogger(FileCheckpointStore.class);
+
+    private static final String FILE_SUFFIX = ".checkpoint";
+
+    private final Path directory;
+
+    public FileCheckpointStore(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        loadCheckpoints();
+    }
+
+    private void loadCheckpoints() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                Properties properties = new Properties();
+                try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    properties.load(reader);
+                }
+                Checkpoint checkpoint = new Checkpoint()
+                        .setFullyQualifiedNamespace(properties.getProperty("fullyQualifiedNamespace"))
+                        .setEventHubName(properties.getProperty("eventHubName"))
+                        .setConsumerGroup(properties.getProperty("consumerGroup"))
+                        .setPartitionId(properties.getProperty("partitionId"))
+                        .setOffset(parseLong(properties.getProperty("offset")))
+                        .setSequenceNumber(parseLong(properties.getProperty("sequenceNumber")));
+                String fileName = file.getFileName().toString();
+                checkpoints.put(URLDecoder.decode(fileName.substring(0, fileName.length() - FILE_SUFFIX.length()),
+                        StandardCharsets.UTF_8.name()), checkpoint);
+            }
+        }
+        log.info("Loaded {} checkpoints from {}", checkpoints.size(), directory);
+    }
+
+    @Override
+    protected void storeCheckpoint(String key, Checkpoint checkpoint) {
+        super.storeCheckpoint(key, checkpoint);
+
+        Properties properties = new Properties();
+        properties.setProperty("fullyQualifiedNamespace", checkpoint.getFullyQualifiedNamespace());
+        properties.setProperty("eventHubName", checkpoint.getEventHubName());
+        properties.setProperty("consumerGroup", checkpoint.getConsumerGroup());
+        properties.setProperty("partitionId", checkpoint.getPartitionId());
+        if (checkpoint.getOffset() != null) {
+            properties.setProperty("offset", checkpoint.getOffset().toString());
+        }
+        if (checkpoint.getSequenceNumber() != null) {
+            properties.setProperty("sequenceNumber", checkpoint.getSequenceNumber().toString());
+        }
+
+        try {
+            Path file = directory.resolve(URLEncoder.encode(key, StandardCharsets.UTF_8.name()) + FILE_SUFFIX);
+            Path tempFile = Files.createTempFile(directory, "checkpoint", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                properties.store(writer, null);
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Long parseLong(String value) {
+        return value == null ? null : Long.valueOf(value);
+    }
+}
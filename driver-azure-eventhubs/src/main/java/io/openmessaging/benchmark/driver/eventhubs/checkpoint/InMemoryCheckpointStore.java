@@ -0,0 +1,113 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.openmessaging.benchmark.driver.eventhubs.checkpoint;
+
+import com.azure.messaging.eventhubs.CheckpointStore;
+import com.azure.messaging.eventhubs.models.Checkpoint;
+import com.azure.messaging.eventhubs.models.PartitionOwnership;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link CheckpointStore} keeping ownership and checkpoints in memory, so that claiming partitions and checkpointing
+ * never leave the worker. A single instance has to be shared by all the processors of a worker for them to balance
+ * the partitions between each other.
+ */
+public class InMemoryCheckpointStore implements CheckpointStore {
+
+    private final Map<String, PartitionOwnership> ownerships = new ConcurrentHashMap<>();
+    protected final Map<String, Checkpoint> checkpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public Flux<PartitionOwnership> listOwnership(String fullyQualifiedNamespace, String eventHubName,
+                                                  String consumerGroup) {
+        String prefix = prefix(fullyQualifiedNamespace, eventHubName, consumerGroup);
+        return Flux.fromIterable(ownerships.entrySet())
+                .filter(entry -> entry.getKey().startsWith(prefix))
+                .map(Map.Entry::getValue);
+    }
+
+    @Override
+    public Flux<PartitionOwnership> claimOwnership(List<PartitionOwnership> requestedPartitionOwnerships) {
+        return Flux.fromIterable(requestedPartitionOwnerships)
+                .map(this::tryClaim)
+                .filter(Objects::nonNull);
+    }
+
+    /**
+     * Claims the partition if nobody changed its ownership since the caller listed it, the same optimistic
+     * concurrency the blob store gets from ETags.
+     */
+    private PartitionOwnership tryClaim(PartitionOwnership requested) {
+        String key = key(requested.getFullyQualifiedNamespace(), requested.getEventHubName(),
+                requested.getConsumerGroup(), requested.getPartitionId());
+        PartitionOwnership claimed = new PartitionOwnership()
+                .setFullyQualifiedNamespace(requested.getFullyQualifiedNamespace())
+                .setEventHubName(requested.getEventHubName())
+                .setConsumerGroup(requested.getConsumerGroup())
+                .setPartitionId(requested.getPartitionId())
+                .setOwnerId(requested.getOwnerId())
+                .setLastModifiedTime(System.currentTimeMillis())
+                .setETag(UUID.randomUUID().toString());
+
+        PartitionOwnership current = ownerships.compute(key, (k, existing) -> {
+            String existingETag = existing == null ? null : existing.getETag();
+            return Objects.equals(existingETag, requested.getETag()) ? claimed : existing;
+        });
+        return current == claimed ? claimed : null;
+    }
+
+    @Override
+    public Flux<Checkpoint> listCheckpoints(String fullyQualifiedNamespace, String eventHubName,
+                                            String consumerGroup) {
+        String prefix = prefix(fullyQualifiedNamespace, eventHubName, consumerGroup);
+        return Flux.fromIterable(checkpoints.entrySet())
+                .filter(entry -> entry.getKey().startsWith(prefix))
+                .map(Map.Entry::getValue);
+    }
+
+    @Override
+    public Mono<Void> updateCheckpoint(Checkpoint checkpoint) {
+        if (checkpoint == null || (checkpoint.getSequenceNumber() == null && checkpoint.getOffset() == null)) {
+            return Mono.error(new IllegalArgumentException("Checkpoint needs either a sequence number or an offset"));
+        }
+        return Mono.fromRunnable(() -> storeCheckpoint(key(checkpoint.getFullyQualifiedNamespace(),
+                checkpoint.getEventHubName(), checkpoint.getConsumerGroup(), checkpoint.getPartitionId()), checkpoint));
+    }
+
+    protected void storeCheckpoint(String key, Checkpoint checkpoint) {
+        checkpoints.put(key, checkpoint);
+    }
+
+    protected static String key(String fullyQualifiedNamespace, String eventHubName, String consumerGroup,
+                                String partitionId) {
+        return prefix(fullyQualifiedNamespace, eventHubName, consumerGroup) + partitionId;
+    }
+
+    private static String prefix(String fullyQualifiedNamespace, String eventHubName, String consumerGroup) {
+        return String.join("/", fullyQualifiedNamespace, eventHubName, consumerGroup).toLowerCase(Locale.ROOT) + "/";
+    }
+}
@@ -23,13 +23,19 @@ import com.azure.messaging.eventhubs.EventDataBatch;
 import com.azure.messaging.eventhubs.EventHubProducerClient;
 import com.azure.messaging.eventhubs.models.CreateBatchOptions;
 import io.openmessaging.benchmark.driver.BenchmarkProducer;
+import io.openmessaging.benchmark.driver.eventhubs.EventHubsBenchmarkConsumer;
 import io.openmessaging.benchmark.driver.eventhubs.EventHubsBenchmarkProducer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 public class EventHubsBenchmarkSyncProducer implements BenchmarkProducer {
     private static final Logger log = LoggerFactory.getLogger(EventHubsBenchmarkProducer.class);
@@ -37,44 +43,79 @@ public class EventHubsBenchmarkSyncProducer implements BenchmarkProducer {
     private final EventHubProducerClient producerClient;
     private final int batchCount;
     private final int batchSize;
+    private final CreateBatchOptions batchOptions;
+    private final List<String> partitionIds;
     private EventDataBatch eventDataBatch;
+    // Batches of the keyed events and their options by partition id, see EventHubsBenchmarkProducer
+    private final Map<String, EventDataBatch> partitionBatches = new HashMap<>();
+    private final Map<String, CreateBatchOptions> partitionBatchOptions = new HashMap<>();
     private boolean isProducerClosed = false;
 
     public EventHubsBenchmarkSyncProducer(EventHubProducerClient producerClient, Properties producerProperties) {
         this.producerClient = producerClient;
         this.batchCount = Integer.parseInt(producerProperties.getProperty("batch.count"));
         this.batchSize = Integer.parseInt(producerProperties.getProperty("batch.size"));
-        eventDataBatch = producerClient.createBatch(new CreateBatchOptions().setMaximumSizeInBytes(batchSize));
+        this.batchOptions = new CreateBatchOptions().setMaximumSizeInBytes(batchSize);
+        this.partitionIds = producerClient.getPartitionIds().stream().collect(Collectors.toList());
+        for (String partitionId : partitionIds) {
+            partitionBatchOptions.put(partitionId,
+                    new CreateBatchOptions().setMaximumSizeInBytes(batchSize).setPartitionId(partitionId));
+        }
+        eventDataBatch = producerClient.createBatch(batchOptions);
     }
 
     @Override
     public CompletableFuture<Integer> sendAsync(Optional<String> key, byte[] payload) {
-        EventData event = new EventData(payload);
-        event.getProperties().putIfAbsent("producer_timestamp", System.currentTimeMillis());
-        boolean addSuccessful = eventDataBatch.tryAdd(event);
+        return sendAsync(key.map(k -> k.getBytes(StandardCharsets.UTF_8)).orElse(null), payload);
+    }
+
+    @Override
+    public CompletableFuture<Integer> sendAsync(byte[] key, byte[] payload) {
         CompletableFuture<Integer> future = new CompletableFuture<>();
+        if (key == null) {
+            eventDataBatch = send(eventDataBatch, batchOptions, payload, future);
+            return future;
+        }
+        String partitionId = EventHubsBenchmarkProducer.partitionIdOf(key, partitionIds);
+        CreateBatchOptions options = partitionBatchOptions.get(partitionId);
+        EventDataBatch batch = partitionBatches.get(partitionId);
+        if (batch == null) {
+            batch = producerClient.createBatch(options);
+        }
+        partitionBatches.put(partitionId, send(batch, options, payload, future));
+        return future;
+    }
+
+    /**
+     * Adds the event to the batch and sends the batch once full, returns the batch the next event is added to
+     */
+    private EventDataBatch send(EventDataBatch batch, CreateBatchOptions options, byte[] payload,
+                                CompletableFuture<Integer> future) {
+        EventData event = new EventData(payload);
+        event.getProperties().putIfAbsent(EventHubsBenchmarkConsumer.PRODUCER_TIMESTAMP_PROPERTY, System.currentTimeMillis());
+        boolean addSuccessful = batch.tryAdd(event);
         if (isProducerClosed) {
             future.completeExceptionally(new RuntimeException("Producer Client is closed. Failing the send call"));
-            return future;
+            return batch;
         }
         if (!addSuccessful) {
-            final int messagesToBeSent = eventDataBatch.getCount();
+            final int messagesToBeSent = batch.getCount();
             //EventDataBatch is full. Send the existing batch and then add the current data.
             // This will block the producer thread instead of sending it asynchronously like the non batched approach.
-            producerClient.send(eventDataBatch);
-            eventDataBatch = producerClient.createBatch(new CreateBatchOptions().setMaximumSizeInBytes(batchSize));
-            eventDataBatch.tryAdd(event);
+            producerClient.send(batch);
+            batch = producerClient.createBatch(options);
+            batch.tryAdd(event);
             future.complete(messagesToBeSent);
         } else {
-            if (eventDataBatch.getCount() >= batchCount) {
-                producerClient.send(eventDataBatch);
-                eventDataBatch = producerClient.createBatch(new CreateBatchOptions().setMaximumSizeInBytes(batchSize));
+            if (batch.getCount() >= batchCount) {
+                producerClient.send(batch);
+                batch = producerClient.createBatch(options);
                 future.complete(batchCount);
             } else {
                 future.complete(0);
             }
         }
-        return future;
+        return batch;
     }
 
     @Override
@@ -85,6 +126,12 @@ public class EventHubsBenchmarkSyncProducer implements BenchmarkProducer {
                 producerClient.send(eventDataBatch);
                 eventDataBatch = producerClient.createBatch();
             }
+            for (EventDataBatch batch : partitionBatches.values()) {
+                if (batch.getCount() > 0) {
+                    producerClient.send(batch);
+                }
+            }
+            partitionBatches.clear();
             producerClient.close();
             isProducerClosed = true;
             log.info("Successfully closed EH Producer");
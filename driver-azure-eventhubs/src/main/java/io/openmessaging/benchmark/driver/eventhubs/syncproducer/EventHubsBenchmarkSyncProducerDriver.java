@@ -18,9 +18,7 @@
  */
 package io.openmessaging.benchmark.driver.eventhubs.syncproducer;
 
-import com.azure.messaging.eventhubs.EventHubClientBuilder;
 import com.azure.messaging.eventhubs.EventHubProducerClient;
-import io.openmessaging.benchmark.appconfig.adapter.ConfigurationKey;
 import io.openmessaging.benchmark.driver.BenchmarkProducer;
 import io.openmessaging.benchmark.driver.eventhubs.EventHubsBenchmarkDriver;
 import org.apache.bookkeeper.stats.StatsLogger;
@@ -38,9 +36,7 @@ public class EventHubsBenchmarkSyncProducerDriver extends EventHubsBenchmarkDriv
 
     @Override
     public CompletableFuture<BenchmarkProducer> createProducer(String topic) {
-        EventHubProducerClient ehProducerClient = new EventHubClientBuilder()
-                .credential(namespace + configProvider.getConfigurationValue(ConfigurationKey.FQDNSuffix), topic, credential)
-                .buildProducerClient();
+        EventHubProducerClient ehProducerClient = connectionPool.buildProducerClient(topic);
         BenchmarkProducer benchmarkProducer = new EventHubsBenchmarkSyncProducer(ehProducerClient, producerProperties);
         try {
             producers.add(benchmarkProducer);
@@ -46,14 +46,27 @@ public class KafkaBenchmarkConsumer implements BenchmarkConsumer {
     private final ExecutorService executor;
     private final Future<?> consumerTask;
     private volatile boolean closing = false;
+    // KafkaConsumer isn't thread-safe, the poll thread applies pause requests to the assigned partitions
+    private volatile boolean paused = false;
 
     public KafkaBenchmarkConsumer(KafkaConsumer<String, byte[]> consumer, ConsumerCallback callback) {
         this.consumer = consumer;
         this.executor = Executors.newSingleThreadExecutor();
 
         this.consumerTask = this.executor.submit(() -> {
+            if (consumer.subscription().isEmpty() && consumer.assignment().isEmpty()) {
+                // More consumers than partitions with manual assignment, nothing to poll
+                log.info("Consumer has no partitions assigned, not polling");
+                return;
+            }
             while (!closing) {
                 try {
+                    if (paused) {
+                        // Also pauses partitions assigned by a rebalance while paused
+                        consumer.pause(consumer.assignment());
+                    } else if (!consumer.paused().isEmpty()) {
+                        consumer.resume(consumer.paused());
+                    }
                     ConsumerRecords<String, byte[]> records = consumer.poll(Duration.ofMillis(100));
                     Map<TopicPartition, OffsetAndMetadata> offsetMap = new HashMap<>();
                     for (ConsumerRecord<String, byte[]> record : records) {
@@ -73,6 +86,16 @@ public class KafkaBenchmarkConsumer implements BenchmarkConsumer {
         });
     }
 
+    @Override
+    public void pause() {
+        paused = true;
+    }
+
+    @Override
+    public void resume() {
+        paused = false;
+    }
+
     @Override
     public void close() throws Exception {
         closing = true;
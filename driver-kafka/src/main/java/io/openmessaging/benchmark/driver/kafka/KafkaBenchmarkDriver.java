@@ -25,6 +25,7 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 import com.microsoft.azure.eventhubs.ConnectionStringBuilder;
@@ -36,16 +37,15 @@ import org.apache.bookkeeper.stats.StatsLogger;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.admin.DeleteTopicsResult;
-import org.apache.kafka.clients.admin.ListTopicsResult;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
-import org.apache.kafka.common.serialization.StringSerializer;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -57,6 +57,14 @@ import org.slf4j.LoggerFactory;
 public class KafkaBenchmarkDriver implements BenchmarkDriver {
     private static final Logger log = LoggerFactory.getLogger(KafkaBenchmarkDriver.class);
 
+    // Benchmark-only consumer settings, removed before the properties reach the KafkaConsumer.
+    // "subscribe" joins the consumer group and lets the broker balance partitions, "manual" assigns the
+    // partitions computed by the benchmark with assign() and never rebalances.
+    private static final String PARTITION_ASSIGNMENT_MODE = "partition.assignment.mode";
+    private static final String MANUAL_ASSIGNMENT_MODE = "manual";
+    // When true, subscribed consumers get a stable group.instance.id so that restarts don't trigger rebalances
+    private static final String STATIC_MEMBERSHIP = "static.membership";
+
     private DriverConfiguration driverConfiguration;
     private final List<BenchmarkProducer> producers = Collections.synchronizedList(new ArrayList<>());
     private final List<BenchmarkConsumer> consumers = Collections.synchronizedList(new ArrayList<>());
@@ -64,6 +72,8 @@ public class KafkaBenchmarkDriver implements BenchmarkDriver {
     private Properties topicProperties;
     private Properties producerProperties;
     private Properties consumerProperties;
+    private boolean manualAssignment;
+    private boolean staticMembership;
 
     private AdminClient admin;
 
@@ -100,7 +110,7 @@ public class KafkaBenchmarkDriver implements BenchmarkDriver {
         producerProperties = new Properties();
         producerProperties.putAll(commonProperties);
         producerProperties.load(new StringReader(driverConfiguration.producerConfig));
-        producerProperties.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        producerProperties.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
         producerProperties.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
 
         consumerProperties = new Properties();
@@ -108,6 +118,12 @@ public class KafkaBenchmarkDriver implements BenchmarkDriver {
         consumerProperties.load(new StringReader(driverConfiguration.consumerConfig));
         consumerProperties.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
         consumerProperties.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
+        manualAssignment = MANUAL_ASSIGNMENT_MODE.equalsIgnoreCase(
+                ((String) consumerProperties.getOrDefault(PARTITION_ASSIGNMENT_MODE, "subscribe")).trim());
+        staticMembership = Boolean.parseBoolean(
+                ((String) consumerProperties.getOrDefault(STATIC_MEMBERSHIP, "false")).trim());
+        consumerProperties.remove(PARTITION_ASSIGNMENT_MODE);
+        consumerProperties.remove(STATIC_MEMBERSHIP);
 
         topicProperties = new Properties();
         topicProperties.load(new StringReader(driverConfiguration.topicConfig));
@@ -120,25 +136,63 @@ public class KafkaBenchmarkDriver implements BenchmarkDriver {
         }
 
         if (driverConfiguration.reset) {
-            try {
-                // List existing topics
-                ListTopicsResult result = admin.listTopics();
-                Set<String> topics = result.names().get();
-                log.info("Deleting the following topics - {}", topics);
-                // Delete all existing topics
-                DeleteTopicsResult deletes = admin.deleteTopics(topics);
-                try{
-                    deletes.all().get(10, TimeUnit.SECONDS);
-                } catch (Exception e){
-                    log.warn("Got error while deleting topic - {}", e.getMessage());
+            deleteExistingTopics();
+        }
+    }
+
+    /**
+     * Deletes the topics created by previous benchmark runs, issuing at most <code>resetParallelism</code>
+     * deletions at a time, and waits until the broker no longer lists them.
+     */
+    private void deleteExistingTopics() throws IOException {
+        long startTime = System.nanoTime();
+        long deadline = startTime + TimeUnit.SECONDS.toNanos(driverConfiguration.resetTimeoutSeconds);
+        int parallelism = Math.max(1, driverConfiguration.resetParallelism);
+        try {
+            List<String> topics = new ArrayList<>(listBenchmarkTopics());
+            if (topics.isEmpty()) {
+                log.info("No existing topics to delete");
+                return;
+            }
+            log.info("Deleting the following topics - {}", topics);
+
+            for (int i = 0; i < topics.size(); i += parallelism) {
+                List<String> chunk = topics.subList(i, Math.min(i + parallelism, topics.size()));
+                DeleteTopicsResult deletes = admin.deleteTopics(chunk);
+                try {
+                    deletes.all().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException | TimeoutException e) {
+                    log.warn("Got error while deleting topics {} - {}", chunk, e.getMessage());
+                }
+            }
+
+            // Deletion is asynchronous on the broker side, wait until the topics are really gone
+            Set<String> remaining = listBenchmarkTopics();
+            remaining.retainAll(topics);
+            while (!remaining.isEmpty()) {
+                if (System.nanoTime() >= deadline) {
+                    throw new IOException("Timed out after " + driverConfiguration.resetTimeoutSeconds
+                            + " s waiting for the deletion of " + remaining);
                 }
-            } catch (Exception e) {
-                e.printStackTrace();
-                throw new IOException(e);
+                Thread.sleep(1000);
+                remaining = listBenchmarkTopics();
+                remaining.retainAll(topics);
             }
+
+            log.info("Deleted {} topics in {} ms", topics.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IOException(e);
         }
     }
 
+    private Set<String> listBenchmarkTopics() throws InterruptedException, ExecutionException {
+        String prefix = getTopicNamePrefix().toLowerCase(Locale.ROOT);
+        return admin.listTopics().names().get().stream()
+                .filter(topic -> topic.toLowerCase(Locale.ROOT).startsWith(prefix))
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
     @Override
     public String getTopicNamePrefix() {
         return "test-topic-kafka";
@@ -176,7 +230,7 @@ public class KafkaBenchmarkDriver implements BenchmarkDriver {
 
     @Override
     public CompletableFuture<BenchmarkProducer> createProducer(String topic) {
-        KafkaProducer<String, byte[]> kafkaProducer = new KafkaProducer<>(producerProperties);
+        KafkaProducer<byte[], byte[]> kafkaProducer = new KafkaProducer<>(producerProperties);
         BenchmarkProducer benchmarkProducer = new KafkaBenchmarkProducer(kafkaProducer, topic);
         try {
             // Add to producer list to close later
@@ -193,13 +247,31 @@ public class KafkaBenchmarkDriver implements BenchmarkDriver {
     @Override
     public CompletableFuture<BenchmarkConsumer> createConsumer(String topic, String subscriptionName,
             Optional<Integer> partition, ConsumerCallback consumerCallback) {
+        return createConsumer(topic, subscriptionName, partition, Collections.emptyList(), consumerCallback);
+    }
+
+    @Override
+    public CompletableFuture<BenchmarkConsumer> createConsumer(String topic, String subscriptionName,
+            Optional<Integer> partition, List<Integer> assignedPartitions, ConsumerCallback consumerCallback) {
         Properties properties = new Properties();
         consumerProperties.forEach((key, value) -> properties.put(key, value));
         properties.put(ConsumerConfig.GROUP_ID_CONFIG, subscriptionName);
+        if (staticMembership && !manualAssignment && partition.isPresent()) {
+            properties.put(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG, subscriptionName + "-" + partition.get());
+        }
         KafkaConsumer<String, byte[]> kafkaConsumer = new KafkaConsumer<>(properties);
         try {
-            // Subscribe
-            kafkaConsumer.subscribe(Arrays.asList(topic));
+            if (manualAssignment) {
+                // Assign the partitions directly, skipping the group join and the rebalances it causes
+                kafkaConsumer.assign(assignedPartitions.stream()
+                        .map(p -> new TopicPartition(topic, p))
+                        .collect(Collectors.toList()));
+                log.info("Assigned partitions {} of topic {} to consumer {}", assignedPartitions, topic,
+                        partition.orElse(-1));
+            } else {
+                // Subscribe
+                kafkaConsumer.subscribe(Arrays.asList(topic));
+            }
 
             // Start polling
             BenchmarkConsumer benchmarkConsumer = new KafkaBenchmarkConsumer(kafkaConsumer, consumerCallback);
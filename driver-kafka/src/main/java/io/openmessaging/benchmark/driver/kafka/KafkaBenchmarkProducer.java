@@ -18,6 +18,7 @@
  */
 package io.openmessaging.benchmark.driver.kafka;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
@@ -28,17 +29,22 @@ import io.openmessaging.benchmark.driver.BenchmarkProducer;
 
 public class KafkaBenchmarkProducer implements BenchmarkProducer {
 
-    private final KafkaProducer<String, byte[]> producer;
+    private final KafkaProducer<byte[], byte[]> producer;
     private final String topic;
 
-    public KafkaBenchmarkProducer(KafkaProducer<String, byte[]> producer, String topic) {
+    public KafkaBenchmarkProducer(KafkaProducer<byte[], byte[]> producer, String topic) {
         this.producer = producer;
         this.topic = topic;
     }
 
     @Override
     public CompletableFuture<Integer> sendAsync(Optional<String> key, byte[] payload) {
-        ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, key.orElse(null), payload);
+        return sendAsync(key.map(k -> k.getBytes(StandardCharsets.UTF_8)).orElse(null), payload);
+    }
+
+    @Override
+    public CompletableFuture<Integer> sendAsync(byte[] key, byte[] payload) {
+        ProducerRecord<byte[], byte[]> record = new ProducerRecord<>(topic, key, payload);
 
         CompletableFuture<Integer> future = new CompletableFuture<>();
 
@@ -53,6 +59,12 @@ public class KafkaBenchmarkProducer implements BenchmarkProducer {
         return future;
     }
 
+    @Override
+    public void pause() {
+        // Don't leave messages lingering in the accumulator while the producer is paused
+        producer.flush();
+    }
+
     @Override
     public void close() throws Exception {
         producer.close();
@@ -5,7 +5,6 @@ import io.openmessaging.benchmark.Benchmark;
 import io.openmessaging.benchmark.pojo.Arguments;
 import io.openmessaging.benchmark.appconfig.adapter.ConfigProvider;
 import io.openmessaging.benchmark.appconfig.adapter.ConfigurationKey;
-import io.openmessaging.benchmark.pojo.output.TestResult;
 import io.openmessaging.benchmark.storage.adapter.StorageAdapter;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -13,6 +12,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static java.lang.System.exit;
@@ -25,29 +25,56 @@ public abstract class EventHubTestBase {
     protected static List<Runnable> configuredTestList = new ArrayList<>();
 
     static ConfigProvider configProvider;
+
+    /**
+     * Runs the configured tests, PERF_TEST_PARALLELISM (default 1) at a time. Concurrent tests get their own namespace
+     * from the namespace pool of their driver and PERF_WORKERS_PER_TEST (default an even split) of the workers.
+     */
     public static void runPerformanceTests(){
-        ApplicationInsights.attach();
-        log.info("Starting Execution of Test Suite: " + testSuiteName);
+        //Each test configures the shared arguments, so they are collected one by one before running any
+        List<List<Arguments>> tests = new ArrayList<>();
         configuredTestList.forEach(individualTest -> {
-            configProvider = ConfigProvider.getInstance();
-            log.info("Running Test: " + individualTest.toString());
             individualTest.run();
+            tests.add(Collections.singletonList(arguments));
+        });
+        runTestGroups(tests);
+    }
 
+    /**
+     * Runs groups of tests, see {@link ParallelTestScheduler#runGroups}, and exits
+     */
+    protected static void runTestGroups(List<List<Arguments>> tests) {
+        ApplicationInsights.attach();
+        log.info("Starting Execution of Test Suite: " + testSuiteName);
+        configProvider = ConfigProvider.getInstance();
+
+        //Optional baseline run to gate the suite on performance regressions
+        String baselineDir = System.getenv("BENCHMARK_BASELINE_DIR");
+        tests.forEach(group -> group.forEach(test -> test.baselineDir = baselineDir));
 
-            //Specifying worker roles if configured
-            arguments.workers = getWorkersIfConfigured(testSuiteName);
-            arguments.producerWorkers = arguments.workers == null ? 0: arguments.workers.size() /2;
-            try {
-                //No Validation happening since the current validation is happening in Kusto.
-                final List<TestResult> testResults = Benchmark.executeBenchmarkingRun(arguments);
-                testResults.forEach(individualResult -> Benchmark.persistTestResults(arguments, individualResult));
-            } catch (Exception e) {
-                log.info("Failed Execution of Test: " + individualTest);
-                log.error(String.valueOf(e));
+        boolean regression = false;
+        try {
+            ParallelTestScheduler scheduler = new ParallelTestScheduler(
+                    getIntEnv("PERF_TEST_PARALLELISM", 1),
+                    new NamespacePool(configProvider),
+                    getWorkersIfConfigured(testSuiteName),
+                    getIntEnv("PERF_WORKERS_PER_TEST", 0));
+            //No Validation happening since the current validation is happening in Kusto, besides the baseline check.
+            for (ParallelTestScheduler.TestOutcome outcome : scheduler.runGroups(tests)) {
+                log.info("Test Outcome - " + outcome);
+                regression |= outcome.regression;
             }
-        });
+        } catch (Exception e) {
+            log.error("Failed Execution of Test Suite: " + testSuiteName, e);
+        }
         log.info("Completed Execution of Test - " + testSuiteName);
-        exit(0);
+        Benchmark.closeResultSinks();
+        exit(regression ? 1 : 0);
+    }
+
+    private static int getIntEnv(String name, int defaultValue) {
+        String value = System.getenv(name);
+        return StringUtils.isNotBlank(value) ? Integer.parseInt(value.trim()) : defaultValue;
     }
 
     static List<String> getWorkersIfConfigured(String testSuiteName){
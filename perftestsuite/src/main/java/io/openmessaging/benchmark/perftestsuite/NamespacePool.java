@@ -0,0 +1,122 @@
+package io.openmessaging.benchmark.perftestsuite;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.openmessaging.benchmark.appconfig.adapter.ConfigProvider;
+import io.openmessaging.benchmark.driver.NamespaceMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Namespaces the tests of a suite can run against, leased to one test at a time so that concurrent tests never share
+ * a namespace.
+ *
+ * <p>The candidates of a driver are read from the AppConfig key {@code <identifier>-pool}, a JSON array of namespace
+ * metadata, falling back to the single namespace of the key {@code <identifier>} the tests use when run one by one.
+ * Leases are tracked by namespace name, so drivers whose pools overlap still never use a namespace at the same time.
+ */
+public class NamespacePool {
+    private static final Logger log = LoggerFactory.getLogger(NamespacePool.class);
+
+    private static final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Function<String, String> metadataLookup;
+    private final Map<String, List<String>> candidates = new HashMap<>();
+    private final Set<String> leased = new HashSet<>();
+
+    public NamespacePool(ConfigProvider configProvider) {
+        this(configProvider::getNamespaceMetaData);
+    }
+
+    /**
+     * @param metadataLookup returns the namespace metadata stored under an AppConfig key, or null
+     */
+    public NamespacePool(Function<String, String> metadataLookup) {
+        this.metadataLookup = metadataLookup;
+    }
+
+    /**
+     * Blocks until a namespace of the driver is free.
+     *
+     * @return the namespace metadata JSON to pass to the test as {@code Arguments.namespaceMetadata}
+     */
+    public synchronized String acquire(String driverIdentifier) throws InterruptedException {
+        List<String> driverCandidates = candidates.computeIfAbsent(driverIdentifier, this::loadCandidates);
+        if (driverCandidates.isEmpty()) {
+            throw new IllegalStateException("No namespace configured for driver " + driverIdentifier);
+        }
+        return lease(driverCandidates);
+    }
+
+    /**
+     * Blocks until the given namespace, set in the driver configuration of a test, is free
+     */
+    public synchronized String acquire(NamespaceMetadata namespace) throws InterruptedException {
+        try {
+            return lease(Collections.singletonList(mapper.writeValueAsString(namespace)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid namespace metadata", e);
+        }
+    }
+
+    private String lease(List<String> metadataList) throws InterruptedException {
+        while (true) {
+            for (String metadata : metadataList) {
+                if (leased.add(namespaceName(metadata))) {
+                    return metadata;
+                }
+            }
+            wait();
+        }
+    }
+
+    public synchronized void release(String metadata) {
+        leased.remove(namespaceName(metadata));
+        notifyAll();
+    }
+
+    private List<String> loadCandidates(String driverIdentifier) {
+        List<String> metadataList = new ArrayList<>();
+        String pool = metadataLookup.apply(driverIdentifier + "-pool");
+        if (pool != null) {
+            try {
+                for (JsonNode namespace : mapper.readTree(pool)) {
+                    metadataList.add(mapper.writeValueAsString(namespace));
+                }
+            } catch (IOException e) {
+                log.warn("Failed to parse the namespace pool of driver {}, using its single namespace",
+                        driverIdentifier);
+                metadataList.clear();
+            }
+        }
+        if (metadataList.isEmpty()) {
+            String single = metadataLookup.apply(driverIdentifier);
+            if (single != null) {
+                metadataList.add(single);
+            }
+        }
+        log.info("Namespace pool of driver {} has {} namespaces", driverIdentifier, metadataList.size());
+        return metadataList;
+    }
+
+    static String namespaceName(String metadata) {
+        try {
+            return mapper.readValue(metadata, NamespaceMetadata.class).NamespaceName;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid namespace metadata", e);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package io.openmessaging.benchmark.perftestsuite;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.openmessaging.benchmark.Benchmark;
+import io.openmessaging.benchmark.BenchmarkSession;
+import io.openmessaging.benchmark.driver.DriverConfiguration;
+import io.openmessaging.benchmark.driver.NamespaceMetadata;
+import io.openmessaging.benchmark.pojo.Arguments;
+import io.openmessaging.benchmark.pojo.output.TestResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the tests of a suite concurrently. Every test, or group of tests sharing a driver, gets its own
+ * {@link Arguments}, a namespace leased from the {@link NamespacePool} and, when remote workers are configured, a
+ * disjoint subset of them.
+ */
+public class ParallelTestScheduler {
+    private static final Logger log = LoggerFactory.getLogger(ParallelTestScheduler.class);
+
+    private static final ObjectMapper mapper = new ObjectMapper(new YAMLFactory())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final int parallelism;
+    private final NamespacePool namespacePool;
+    private final BlockingQueue<List<String>> workerSlots;
+
+    /** A distributed test splits its workers between producers and consumers, so it needs two at least */
+    private static final int MIN_WORKERS_PER_TEST = 2;
+
+    /**
+     * @param workers        remote workers to split between the concurrent tests, null or empty to run local workers
+     * @param workersPerTest size of the worker subset of a test, at least 2, or 0 to split the workers evenly
+     */
+    public ParallelTestScheduler(int parallelism, NamespacePool namespacePool, List<String> workers,
+                                 int workersPerTest) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, got " + parallelism);
+        }
+        this.namespacePool = namespacePool;
+        if (workers == null || workers.isEmpty()) {
+            this.parallelism = parallelism;
+            this.workerSlots = null;
+        } else {
+            if (workers.size() < MIN_WORKERS_PER_TEST) {
+                throw new IllegalArgumentException("Running tests on remote workers needs at least "
+                        + MIN_WORKERS_PER_TEST + " workers, got " + workers.size());
+            }
+            if (workersPerTest > 0 && workersPerTest < MIN_WORKERS_PER_TEST) {
+                throw new IllegalArgumentException("A test needs at least " + MIN_WORKERS_PER_TEST
+                        + " workers, one producer and one consumer, got " + workersPerTest + " workers per test");
+            }
+            // Tests beyond the number of worker pairs would get a single worker
+            int slotSize = workersPerTest > 0
+                    ? workersPerTest
+                    : workers.size() / Math.min(parallelism, workers.size() / MIN_WORKERS_PER_TEST);
+            if (slotSize > workers.size()) {
+                throw new IllegalArgumentException("Cannot give " + slotSize + " workers to a test out of "
+                        + workers.size());
+            }
+            int slots = workers.size() / slotSize;
+            this.parallelism = Math.min(parallelism, slots);
+            this.workerSlots = new ArrayBlockingQueue<>(slots);
+            for (int i = 0; i < slots; i++) {
+                this.workerSlots.add(new ArrayList<>(workers.subList(i * slotSize, (i + 1) * slotSize)));
+            }
+        }
+    }
+
+    public List<TestOutcome> run(List<Arguments> tests) throws InterruptedException {
+        List<List<Arguments>> groups = new ArrayList<>();
+        for (Arguments test : tests) {
+            groups.add(Collections.singletonList(test));
+        }
+        return runGroups(groups);
+    }
+
+    /**
+     * Runs groups of tests concurrently, the tests of a group one after another in a {@link BenchmarkSession} on the
+     * same namespace and workers. The tests of a group must use the same driver.
+     */
+    public List<TestOutcome> runGroups(List<List<Arguments>> groups) throws InterruptedException {
+        log.info("Running {} test groups, {} at a time", groups.size(), parallelism);
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        List<Future<List<TestOutcome>>> futures = new ArrayList<>();
+        for (List<Arguments> group : groups) {
+            futures.add(executor.submit(() -> runGroup(group)));
+        }
+        executor.shutdown();
+
+        List<TestOutcome> outcomes = new ArrayList<>();
+        for (Future<List<TestOutcome>> future : futures) {
+            try {
+                outcomes.addAll(future.get());
+            } catch (ExecutionException e) {
+                // runGroup records the failures of its tests
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        return outcomes;
+    }
+
+    private List<TestOutcome> runGroup(List<Arguments> group) throws InterruptedException {
+        List<TestOutcome> outcomes = new ArrayList<>();
+        Arguments first = group.get(0);
+        Thread.currentThread().setName("test-" + first.output);
+        List<String> workers = workerSlots != null ? workerSlots.take() : null;
+        String namespace = null;
+        try {
+            // Benchmark applies the namespace of the arguments to every driver of the test
+            DriverConfiguration driver = mapper.readValue(new File(first.drivers.get(0)), DriverConfiguration.class);
+            if (driver.namespaceMetadata != null) {
+                namespace = namespacePool.acquire(driver.namespaceMetadata);
+            } else if (first.namespaceMetadata != null) {
+                namespace = namespacePool.acquire(mapper.readValue(first.namespaceMetadata, NamespaceMetadata.class));
+            } else {
+                namespace = namespacePool.acquire(driver.identifier);
+            }
+            for (Arguments arguments : group) {
+                if (driver.namespaceMetadata == null && arguments.namespaceMetadata == null) {
+                    arguments.namespaceMetadata = namespace;
+                }
+                if (workers != null) {
+                    arguments.workers = workers;
+                    arguments.producerWorkers = workers.size() / 2;
+                }
+            }
+            log.info("Running {} tests on namespace {} with workers {}", group.size(),
+                    NamespacePool.namespaceName(namespace), workers);
+
+            try (BenchmarkSession session = BenchmarkSession.open(first)) {
+                for (Arguments arguments : group) {
+                    outcomes.add(runTest(session, arguments));
+                }
+            }
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed Execution of Tests starting with {}", first.output, e);
+            for (Arguments arguments : group.subList(outcomes.size(), group.size())) {
+                TestOutcome outcome = new TestOutcome(arguments.output);
+                outcome.failure = e;
+                outcomes.add(outcome);
+            }
+        } finally {
+            if (namespace != null) {
+                namespacePool.release(namespace);
+            }
+            if (workers != null) {
+                workerSlots.add(workers);
+            }
+        }
+        return outcomes;
+    }
+
+    private static TestOutcome runTest(BenchmarkSession session, Arguments arguments) {
+        TestOutcome outcome = new TestOutcome(arguments.output);
+        log.info("Running Test: {}", outcome.name);
+        long start = System.nanoTime();
+        try {
+            for (TestResult result : session.run(arguments)) {
+                String fileNamePrefix = Benchmark.persistTestResults(arguments, result);
+                outcome.fileNamePrefixes.add(fileNamePrefix);
+                outcome.regression |= Benchmark.checkForRegressions(arguments, fileNamePrefix);
+            }
+        } catch (Exception e) {
+            log.error("Failed Execution of Test: {}", outcome.name, e);
+            outcome.failure = e;
+        }
+        outcome.durationSeconds = (System.nanoTime() - start) / 1e9;
+        return outcome;
+    }
+
+    public static class TestOutcome {
+        public final String name;
+        public final List<String> fileNamePrefixes = new ArrayList<>();
+        public boolean regression;
+        public Exception failure;
+        public double durationSeconds;
+
+        TestOutcome(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": " + (failure != null ? "FAILED (" + failure + ")"
+                    : regression ? "REGRESSION" : "passed") + String.format(" in %.0f s", durationSeconds);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package io.openmessaging.benchmark.perftestsuite;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.openmessaging.benchmark.pojo.Arguments;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Declarative test suite: every workload runs with every driver, or with the drivers that list it.
+ *
+ * <p>A run is named {@code <workload name><driver variant>-<driver name>}, e.g. XLPayloadNonBatch-KafkaDedicated, the
+ * names the hand-written suites use, and is tagged with the tags of the matrix, its driver and its workload.
+ */
+public class TestMatrix {
+    private static final ObjectMapper mapper = new ObjectMapper(new YAMLFactory())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    public String name;
+    public List<String> tags = new ArrayList<>();
+    public List<DriverEntry> drivers = new ArrayList<>();
+    public List<WorkloadEntry> workloads = new ArrayList<>();
+
+    // Keep the driver initialized between the runs of a driver, see BenchmarkSession
+    public boolean reuseDriver = true;
+    // Keep the topics and clients between consecutive runs with the same layout, see BenchmarkSession
+    public boolean reuseTopics = true;
+
+    public static class DriverEntry {
+        public String name;
+        public String file;
+        // Appended to the workload name of the run
+        public String variant = "";
+        public List<String> tags = new ArrayList<>();
+        // Names of the only workloads to run with the driver, all of them when empty
+        public List<String> workloads = new ArrayList<>();
+    }
+
+    public static class WorkloadEntry {
+        public String name;
+        public String file;
+        public List<String> tags = new ArrayList<>();
+    }
+
+    /**
+     * Reads a matrix from a file, or from a classpath resource when there is no such file
+     */
+    public static TestMatrix load(String path) throws IOException {
+        File file = new File(path);
+        if (file.exists()) {
+            return mapper.readValue(file, TestMatrix.class);
+        }
+        try (InputStream in = TestMatrix.class.getClassLoader().getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IOException("No test matrix at " + path);
+            }
+            return mapper.readValue(in, TestMatrix.class);
+        }
+    }
+
+    /**
+     * Expands the matrix into one group of runs per driver file, in declaration order. The runs of a group share
+     * their driver configuration and run back-to-back.
+     */
+    public List<List<Arguments>> expand() {
+        Map<String, List<Arguments>> runsByDriverFile = new LinkedHashMap<>();
+        for (DriverEntry driver : drivers) {
+            for (WorkloadEntry workload : workloads) {
+                if (driver.workloads.isEmpty() || driver.workloads.contains(workload.name)) {
+                    runsByDriverFile.computeIfAbsent(driver.file, f -> new ArrayList<>())
+                            .add(toArguments(driver, workload));
+                }
+            }
+        }
+        return new ArrayList<>(runsByDriverFile.values());
+    }
+
+    private Arguments toArguments(DriverEntry driver, WorkloadEntry workload) {
+        Arguments arguments = new Arguments();
+        arguments.drivers = Collections.singletonList(driver.file);
+        arguments.workloads = Collections.singletonList(workload.file);
+        arguments.output = workload.name + driver.variant + "-" + driver.name;
+        Set<String> runTags = new LinkedHashSet<>(tags);
+        runTags.addAll(driver.tags);
+        runTags.addAll(workload.tags);
+        arguments.tags = new ArrayList<>(runTags);
+        arguments.reuseDriver = reuseDriver;
+        arguments.reuseTopics = reuseTopics;
+        return arguments;
+    }
+}
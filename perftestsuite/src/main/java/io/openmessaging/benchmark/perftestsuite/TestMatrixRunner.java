@@ -0,0 +1,25 @@
+package io.openmessaging.benchmark.perftestsuite;
+
+import java.io.IOException;
+
+import static java.lang.System.exit;
+
+/**
+ * Runs a {@link TestMatrix}, given as a file or as a classpath resource such as matrix/kafka-regression.yaml
+ */
+public class TestMatrixRunner extends EventHubTestBase {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: TestMatrixRunner <test matrix yaml>");
+            exit(-1);
+        }
+        runMatrix(args[0]);
+    }
+
+    public static void runMatrix(String path) throws IOException {
+        TestMatrix matrix = TestMatrix.load(path);
+        testSuiteName = matrix.name;
+        runTestGroups(matrix.expand());
+    }
+}
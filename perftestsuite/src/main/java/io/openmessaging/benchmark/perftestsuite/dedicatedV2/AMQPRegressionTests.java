@@ -1,160 +1,13 @@
 package io.openmessaging.benchmark.perftestsuite.dedicatedV2;
 
-import io.openmessaging.benchmark.pojo.Arguments;
-import io.openmessaging.benchmark.perftestsuite.EventHubTestBase;
+import io.openmessaging.benchmark.perftestsuite.TestMatrixRunner;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
+import java.io.IOException;
 
-import static io.openmessaging.benchmark.perftestsuite.MetadataTags.*;
+//The tests are declared in the test matrix, this entry point is kept for the existing pipelines
+public class AMQPRegressionTests {
 
-//Each Test except high throughput test is trying to reach 10MB/s throughput
-public class AMQPRegressionTests extends EventHubTestBase {
-
-    public static void main(String[] args) {
-        configuredTestList = new ArrayList<>();
-        testSuiteName = "AMQPRegressionTests";
-
-        //Add a list of tests here
-        configuredTestList.add(XLPayloadTest());
-        configuredTestList.add(XLPayloadNonBatchTest());
-        configuredTestList.add(SmallPayloadTest());
-        configuredTestList.add(SmallPayloadNonBatchTest());
-
-        //Throughput Tests
-        configuredTestList.add(LowThroughputTest());
-        configuredTestList.add(MediumThroughputTest());
-        configuredTestList.add(HighThroughputTest());
-
-        //This will run each test 1 by 1
-        runPerformanceTests();
-    }
-
-    public static Runnable XLPayloadTest() {
-        return new Runnable() {
-            @Override
-            public void run() {
-                arguments = new Arguments();
-                arguments.drivers = Collections.singletonList("driver-azure-eventhubs/amqp-batch-dedicated-v2.yaml");
-                arguments.workloads = Collections.singletonList("workloads/1producer-1consumer-1MBMessage.yaml");
-                arguments.output = "XLPayload-AMQPDedicated";
-                arguments.tags = Arrays.asList(Regression.toString(), Latency.toString(), Batch.toString());
-            }
-
-            @Override
-            public String toString() {
-                return "XLPayload-AMQPDedicated";
-            }
-        };
-    }
-
-    public static Runnable SmallPayloadTest() {
-        return new Runnable() {
-            @Override
-            public void run() {
-                arguments = new Arguments();
-                arguments.drivers = Collections.singletonList("driver-azure-eventhubs/amqp-batch-dedicated-v2.yaml");
-                arguments.workloads = Collections.singletonList("workloads/10producer-10consumer-4KB.yaml");
-                arguments.output = "SmallPayload-AMQPDedicated";
-                arguments.tags = Arrays.asList(Regression.toString(), Latency.toString(), Batch.toString());
-            }
-
-            @Override
-            public String toString() {
-                return "SmallPayload-AMQPDedicated";
-            }
-        };
-    }
-
-
-    public static Runnable SmallPayloadNonBatchTest() {
-        return new Runnable() {
-            @Override
-            public void run() {
-                arguments = new Arguments();
-                arguments.drivers = Collections.singletonList("driver-azure-eventhubs/amqp-dedicated-v2.yaml");
-                arguments.workloads = Collections.singletonList("workloads/10producer-10consumer-4KB.yaml");
-                arguments.output = "SmallPayloadNonBatch-AMQPDedicated";
-                arguments.tags = Arrays.asList(Regression.toString(), Latency.toString());
-            }
-
-            @Override
-            public String toString() {
-                return "SmallPayloadNonBatch-AMQPDedicated";
-            }
-        };
-    }
-
-    public static Runnable XLPayloadNonBatchTest() {
-        return new Runnable() {
-            @Override
-            public void run() {
-                arguments = new Arguments();
-                arguments.drivers = Collections.singletonList("driver-azure-eventhubs/amqp-dedicated-v2.yaml");
-                arguments.workloads = Collections.singletonList("workloads/1producer-1consumer-1MBMessage.yaml");
-                arguments.output = "XLPayloadNonBatch-AMQPDedicated";
-                arguments.tags = Arrays.asList(Regression.toString(), Latency.toString());
-            }
-
-            @Override
-            public String toString() {
-                return "XLPayloadNonBatch-AMQPDedicated";
-            }
-        };
-    }
-
-    public static Runnable HighThroughputTest() {
-        return new Runnable() {
-            @Override
-            public void run() {
-                arguments = new Arguments();
-                arguments.drivers = Collections.singletonList("driver-azure-eventhubs/amqp-batch-dedicated-v2.yaml");
-                arguments.workloads = Collections.singletonList("workloads/40producer-40consumer-1MBMessage-HighThroughput.yaml");
-                arguments.output = "HighThroughput-AMQPDedicated";
-                arguments.tags = Arrays.asList(Regression.toString(), Throughput.toString());
-            }
-
-            @Override
-            public String toString() {
-                return "HighThroughput-AMQPDedicated";
-            }
-        };
-    }
-
-    public static Runnable LowThroughputTest() {
-        return new Runnable() {
-            @Override
-            public void run() {
-                arguments = new Arguments();
-                arguments.drivers = Collections.singletonList("driver-azure-eventhubs/amqp-batch-dedicated-v2.yaml");
-                arguments.workloads = Collections.singletonList("workloads/1producer-1consumer-50Kb-1Mbps.yaml");
-                arguments.output = "LowThroughput-AMQPDedicated";
-                arguments.tags = Arrays.asList(Regression.toString(), Throughput.toString(), Latency.toString());
-            }
-
-            @Override
-            public String toString() {
-                return "LowThroughput-AMQPDedicated";
-            }
-        };
-    }
-
-    public static Runnable MediumThroughputTest() {
-        return new Runnable() {
-            @Override
-            public void run() {
-                arguments = new Arguments();
-                arguments.drivers = Collections.singletonList("driver-azure-eventhubs/amqp-batch-dedicated-v2.yaml");
-                arguments.workloads = Collections.singletonList("workloads/20producer-20consumer-50Kb-100Mbps.yaml");
-                arguments.output = "MediumThroughputTest-AMQPDedicated";
-                arguments.tags = Arrays.asList(Regression.toString(), Throughput.toString(), Latency.toString());
-            }
-
-            @Override
-            public String toString() {
-                return "MediumThroughputTest-AMQPDedicated";
-            }
-        };
+    public static void main(String[] args) throws IOException {
+        TestMatrixRunner.runMatrix("matrix/amqp-regression.yaml");
     }
 }
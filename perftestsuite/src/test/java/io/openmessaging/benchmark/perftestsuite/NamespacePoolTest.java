@@ -0,0 +1,132 @@
+package io.openmessaging.benchmark.perftestsuite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import io.openmessaging.benchmark.driver.NamespaceMetadata;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class NamespacePoolTest {
+
+    private static String metadata(String namespaceName) {
+        return "{\"NamespaceName\":\"" + namespaceName + "\"}";
+    }
+
+    @Test
+    public void testLeasesEveryNamespaceOfThePool() throws Exception {
+        // given
+        Map<String, String> config = new HashMap<>();
+        config.put("kafka-pool", "[" + metadata("ns-1") + "," + metadata("ns-2") + "]");
+        NamespacePool pool = new NamespacePool(config::get);
+
+        // when
+        String first = pool.acquire("kafka");
+        String second = pool.acquire("kafka");
+
+        // then
+        assertEquals("ns-1", NamespacePool.namespaceName(first));
+        assertEquals("ns-2", NamespacePool.namespaceName(second));
+    }
+
+    @Test
+    public void testBlocksUntilReleased() throws Exception {
+        // given
+        Map<String, String> config = new HashMap<>();
+        config.put("kafka-pool", "[" + metadata("ns-1") + "]");
+        NamespacePool pool = new NamespacePool(config::get);
+        String leased = pool.acquire("kafka");
+
+        // when
+        CompletableFuture<String> waiting = acquireAsync(pool, "kafka");
+        Thread.sleep(200);
+        boolean doneBeforeRelease = waiting.isDone();
+        pool.release(leased);
+
+        // then
+        assertFalse(doneBeforeRelease);
+        assertEquals("ns-1", NamespacePool.namespaceName(waiting.get(10, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    public void testOverlappingPoolsNeverShareANamespace() throws Exception {
+        // given
+        Map<String, String> config = new HashMap<>();
+        config.put("kafka-pool", "[" + metadata("ns-1") + "," + metadata("ns-2") + "]");
+        config.put("amqp-pool", "[" + metadata("ns-2") + "]");
+        NamespacePool pool = new NamespacePool(config::get);
+        pool.acquire("kafka");
+        String shared = pool.acquire("kafka");
+
+        // when
+        CompletableFuture<String> waiting = acquireAsync(pool, "amqp");
+        Thread.sleep(200);
+        boolean doneBeforeRelease = waiting.isDone();
+        pool.release(shared);
+
+        // then
+        assertFalse(doneBeforeRelease);
+        assertEquals("ns-2", NamespacePool.namespaceName(waiting.get(10, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    public void testFallsBackToSingleNamespace() throws Exception {
+        // given
+        Map<String, String> config = new HashMap<>();
+        config.put("kafka", metadata("ns-single"));
+        config.put("amqp-pool", "not json");
+        config.put("amqp", metadata("ns-amqp"));
+        NamespacePool pool = new NamespacePool(config::get);
+
+        // when
+        String kafka = pool.acquire("kafka");
+        String amqp = pool.acquire("amqp");
+
+        // then
+        assertEquals("ns-single", NamespacePool.namespaceName(kafka));
+        assertEquals("ns-amqp", NamespacePool.namespaceName(amqp));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFailsWithoutNamespace() throws Exception {
+        new NamespacePool(key -> null).acquire("kafka");
+    }
+
+    @Test
+    public void testLeasesNamespaceOfDriverConfiguration() throws Exception {
+        // given
+        Map<String, String> config = new HashMap<>();
+        config.put("kafka-pool", "[" + metadata("ns-1") + "]");
+        NamespacePool pool = new NamespacePool(config::get);
+        NamespaceMetadata namespace = NamespaceMetadata.builder().NamespaceName("ns-1").build();
+        String leased = pool.acquire(namespace);
+
+        // when
+        CompletableFuture<String> waiting = acquireAsync(pool, "kafka");
+        Thread.sleep(200);
+        boolean doneBeforeRelease = waiting.isDone();
+        pool.release(leased);
+
+        // then
+        assertFalse(doneBeforeRelease);
+        assertEquals("ns-1", NamespacePool.namespaceName(waiting.get(10, TimeUnit.SECONDS)));
+    }
+
+    private static CompletableFuture<String> acquireAsync(NamespacePool pool, String driverIdentifier) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                future.complete(pool.acquire(driverIdentifier));
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return future;
+    }
+}
@@ -0,0 +1,111 @@
+package io.openmessaging.benchmark.perftestsuite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.openmessaging.benchmark.pojo.Arguments;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class TestMatrixTest {
+
+    private static TestMatrix.DriverEntry driver(String name, String file, String variant, String... tags) {
+        TestMatrix.DriverEntry driver = new TestMatrix.DriverEntry();
+        driver.name = name;
+        driver.file = file;
+        driver.variant = variant;
+        driver.tags = Arrays.asList(tags);
+        return driver;
+    }
+
+    private static TestMatrix.WorkloadEntry workload(String name, String... tags) {
+        TestMatrix.WorkloadEntry workload = new TestMatrix.WorkloadEntry();
+        workload.name = name;
+        workload.file = "workloads/" + name + ".yaml";
+        workload.tags = Arrays.asList(tags);
+        return workload;
+    }
+
+    @Test
+    public void testExpandsEveryWorkloadWithEveryDriver() {
+        // given
+        TestMatrix matrix = new TestMatrix();
+        matrix.drivers = Arrays.asList(driver("KafkaDedicated", "kafka.yaml", ""),
+                driver("AMQPDedicated", "amqp.yaml", "NonBatch"));
+        matrix.workloads = Arrays.asList(workload("XLPayload"), workload("LowThroughput"));
+
+        // when
+        List<List<Arguments>> groups = matrix.expand();
+
+        // then
+        assertEquals(2, groups.size());
+        assertEquals(Arrays.asList("XLPayload-KafkaDedicated", "LowThroughput-KafkaDedicated"), outputs(groups.get(0)));
+        assertEquals(Arrays.asList("XLPayloadNonBatch-AMQPDedicated", "LowThroughputNonBatch-AMQPDedicated"),
+                outputs(groups.get(1)));
+        assertEquals(Collections.singletonList("amqp.yaml"), groups.get(1).get(0).drivers);
+        assertEquals(Collections.singletonList("workloads/LowThroughput.yaml"), groups.get(1).get(1).workloads);
+    }
+
+    @Test
+    public void testFiltersWorkloadsOfDriver() {
+        // given
+        TestMatrix matrix = new TestMatrix();
+        TestMatrix.DriverEntry amqp = driver("AMQPDedicated", "amqp.yaml", "");
+        amqp.workloads = Collections.singletonList("LowThroughput");
+        matrix.drivers = Arrays.asList(driver("KafkaDedicated", "kafka.yaml", ""), amqp);
+        matrix.workloads = Arrays.asList(workload("XLPayload"), workload("LowThroughput"));
+
+        // when
+        List<List<Arguments>> groups = matrix.expand();
+
+        // then
+        assertEquals(2, groups.get(0).size());
+        assertEquals(Collections.singletonList("LowThroughput-AMQPDedicated"), outputs(groups.get(1)));
+    }
+
+    @Test
+    public void testGroupsRunsByDriverFile() {
+        // given variants of one driver file
+        TestMatrix matrix = new TestMatrix();
+        matrix.drivers = Arrays.asList(driver("KafkaDedicated", "kafka.yaml", "Batch"),
+                driver("AMQPDedicated", "amqp.yaml", ""),
+                driver("KafkaDedicated", "kafka.yaml", "NonBatch"));
+        matrix.workloads = Collections.singletonList(workload("XLPayload"));
+
+        // when
+        List<List<Arguments>> groups = matrix.expand();
+
+        // then
+        assertEquals(2, groups.size());
+        assertEquals(Arrays.asList("XLPayloadBatch-KafkaDedicated", "XLPayloadNonBatch-KafkaDedicated"),
+                outputs(groups.get(0)));
+        assertEquals(Collections.singletonList("XLPayload-AMQPDedicated"), outputs(groups.get(1)));
+    }
+
+    @Test
+    public void testMergesTags() {
+        // given
+        TestMatrix matrix = new TestMatrix();
+        matrix.tags = Arrays.asList("nightly", "kafka");
+        matrix.drivers = Collections.singletonList(driver("KafkaDedicated", "kafka.yaml", "", "kafka", "dedicated"));
+        matrix.workloads = Collections.singletonList(workload("XLPayload", "xl", "nightly"));
+        matrix.reuseTopics = false;
+
+        // when
+        Arguments arguments = matrix.expand().get(0).get(0);
+
+        // then
+        assertEquals(Arrays.asList("nightly", "kafka", "dedicated", "xl"), arguments.tags);
+        assertTrue(arguments.reuseDriver);
+        assertFalse(arguments.reuseTopics);
+    }
+
+    private static List<String> outputs(List<Arguments> runs) {
+        return runs.stream().map(arguments -> arguments.output).collect(Collectors.toList());
+    }
+}